@@ -8,6 +8,7 @@ plugins {
   id("checkstyle")
   alias(libs.plugins.spotless)
   alias(libs.plugins.nexus)
+  alias(libs.plugins.jmh)
 }
 
 group = "io.github.shiruka"
@@ -15,6 +16,8 @@ group = "io.github.shiruka"
 configurations {
   testImplementation.get().extendsFrom(compileOnlyApi.get())
   testAnnotationProcessor.get().extendsFrom(annotationProcessor.get())
+  jmhImplementation.get().extendsFrom(compileOnlyApi.get())
+  jmhAnnotationProcessor.get().extendsFrom(annotationProcessor.get())
 }
 
 checkstyle {
@@ -85,6 +88,10 @@ tasks {
   checkstyleTest {
     isEnabled = false
   }
+
+  checkstyleJmh {
+    isEnabled = false
+  }
 }
 
 val spotlessApply = rootProject.property("spotless.apply").toString().toBoolean()
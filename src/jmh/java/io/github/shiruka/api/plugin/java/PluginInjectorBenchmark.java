@@ -0,0 +1,158 @@
+package io.github.shiruka.api.plugin.java;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+import io.github.shiruka.api.plugin.Plugin;
+import io.github.shiruka.api.version.Version;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * a class that represents benchmarks of the per-plugin injector cost.
+ * <p>
+ * {@link #standalone()} creates a standalone injector from the plugin bindings alone for each plugin, as the plugin
+ * loader did before the shared parent injector. {@link #child()} creates a child injector of the shared parent
+ * injector, as {@link PluginClassLoader} does now. the plugin bindings mirror {@link JavaPluginModule}, which requires
+ * a real plugin jar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PluginInjectorBenchmark {
+
+  /**
+   * the parent injector.
+   */
+  private Injector parent;
+
+  /**
+   * the plugin module.
+   */
+  private Module plugin;
+
+  /**
+   * creates the plugin injector as a child of the shared parent injector.
+   *
+   * @return plugin instance.
+   */
+  @Benchmark
+  public BenchmarkPlugin child() {
+    return this.parent.createChildInjector(
+        this.plugin,
+        new PluginTypesModule(
+          PluginInjectorBenchmark.class.getClassLoader(),
+          BenchmarkPlugin.class
+        )
+      )
+      .getInstance(BenchmarkPlugin.class);
+  }
+
+  /**
+   * creates the parent injector and the plugin module.
+   */
+  @Setup
+  public void setup() {
+    this.parent = Guice.createInjector(new JavaPluginServerModule());
+    final var description = new Plugin.Description(
+      "Benchmark",
+      BenchmarkPlugin.class.getName(),
+      Version.of(1),
+      "",
+      Plugin.LoadOrder.POST_WORLD,
+      Set.of(),
+      Set.of(),
+      "Benchmark",
+      Set.of(),
+      Set.of(),
+      Set.of(),
+      Set.of(),
+      ""
+    );
+    final var logger = LogManager.getLogger("Benchmark");
+    final var dataFolder = Path.of("plugins", "Benchmark");
+    final var pluginFile = new File("plugins", "Benchmark.jar");
+    final var classLoader = PluginInjectorBenchmark.class.getClassLoader();
+    this.plugin =
+      binder -> {
+        binder.bind(Logger.class).toInstance(logger);
+        binder.bind(Plugin.Description.class).toInstance(description);
+        binder
+          .bind(Path.class)
+          .annotatedWith(Names.named("dataFolder"))
+          .toInstance(dataFolder);
+        binder
+          .bind(File.class)
+          .annotatedWith(Names.named("pluginFile"))
+          .toInstance(pluginFile);
+        binder.bind(ClassLoader.class).toInstance(classLoader);
+      };
+  }
+
+  /**
+   * creates a standalone plugin injector from the plugin bindings.
+   *
+   * @return plugin instance.
+   */
+  @Benchmark
+  public BenchmarkPlugin standalone() {
+    return Guice
+      .createInjector(this.plugin)
+      .getInstance(BenchmarkPlugin.class);
+  }
+
+  /**
+   * a class that represents plugins of the benchmark.
+   */
+  public static final class BenchmarkPlugin implements Plugin {
+
+    /**
+     * ctor.
+     *
+     * @param dataFolder the data folder.
+     * @param pluginFile the plugin file.
+     * @param service the service.
+     */
+    @Inject
+    public BenchmarkPlugin(
+      @NotNull @Named("dataFolder") final Path dataFolder,
+      @NotNull @Named("pluginFile") final File pluginFile,
+      @NotNull final BenchmarkService service
+    ) {}
+  }
+
+  /**
+   * a class that represents services of the benchmark plugin.
+   */
+  public static final class BenchmarkService {
+
+    /**
+     * ctor.
+     *
+     * @param classLoader the class loader.
+     */
+    @Inject
+    public BenchmarkService(@NotNull final ClassLoader classLoader) {}
+  }
+}
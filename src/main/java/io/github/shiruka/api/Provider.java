@@ -1,10 +1,15 @@
 package io.github.shiruka.api;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
@@ -22,6 +27,16 @@ public interface Provider {
     return new Impl();
   }
 
+  /**
+   * creates a thread-safe provider that also provides implementations by their super classes and interfaces.
+   *
+   * @return a newly created concurrent provider.
+   */
+  @NotNull
+  static Provider concurrent() {
+    return new Concurrent();
+  }
+
   /**
    * provides the given class's implementation.
    *
@@ -63,6 +78,54 @@ public interface Provider {
   @NotNull
   Provider register(@NotNull Object object);
 
+  /**
+   * registers the factory that creates the class's implementation when it is provided and not registered yet.
+   * <p>
+   * the factory either returns the implementation or registers it by itself and returns {@code null}, such as a lazy
+   * plugin that registers its services when it is activated. the default implementation does not defer the factory and
+   * runs it at once.
+   *
+   * @param cls the cls to register.
+   * @param factory the factory to register.
+   *
+   * @return {@code this} for builder chain.
+   */
+  @NotNull
+  default Provider registerFactory(
+    @NotNull final Class<?> cls,
+    @NotNull final Supplier<?> factory
+  ) {
+    final var created = factory.get();
+    if (created != null) {
+      this.register(created);
+    }
+    return this;
+  }
+
+  /**
+   * unregisters the factory of the class.
+   *
+   * @param cls the cls to unregister.
+   *
+   * @return {@code this} for builder chain.
+   */
+  @NotNull
+  default Provider unregisterFactory(@NotNull final Class<?> cls) {
+    return this;
+  }
+
+  /**
+   * unregisters the implementations and the factories if the predicate returns {@code true}.
+   *
+   * @param predicate the predicate to unregister.
+   *
+   * @return {@code this} for builder chain.
+   */
+  @NotNull
+  default Provider unregisterIf(@NotNull final Predicate<Object> predicate) {
+    return this;
+  }
+
   /**
    * a simple implementation for {@link Provider}.
    */
@@ -70,6 +133,12 @@ public interface Provider {
   @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
   final class Impl implements Provider {
 
+    /**
+     * the factories.
+     */
+    @NotNull
+    private final Map<Class<?>, Supplier<?>> factories = new HashMap<>();
+
     /**
      * the implementations.
      */
@@ -79,6 +148,18 @@ public interface Provider {
     @NotNull
     @Override
     public <T> Optional<T> provide(@NotNull final Class<? extends T> cls) {
+      final var implementation = this.implementations.get(cls);
+      if (implementation != null) {
+        return Optional.of((T) implementation);
+      }
+      final var factory = this.factories.get(cls);
+      if (factory == null) {
+        return Optional.empty();
+      }
+      final var created = factory.get();
+      if (created != null) {
+        this.register(created);
+      }
       return Optional.ofNullable(this.implementations.get(cls)).map(o -> (T) o);
     }
 
@@ -88,5 +169,168 @@ public interface Provider {
       this.implementations.put(object.getClass(), object);
       return this;
     }
+
+    @NotNull
+    @Override
+    public Provider registerFactory(
+      @NotNull final Class<?> cls,
+      @NotNull final Supplier<?> factory
+    ) {
+      this.factories.put(cls, factory);
+      return this;
+    }
+
+    @NotNull
+    @Override
+    public Provider unregisterFactory(@NotNull final Class<?> cls) {
+      this.factories.remove(cls);
+      return this;
+    }
+
+    @NotNull
+    @Override
+    public Provider unregisterIf(@NotNull final Predicate<Object> predicate) {
+      this.factories.values().removeIf(predicate);
+      this.implementations.values().removeIf(predicate);
+      return this;
+    }
+  }
+
+  /**
+   * a thread-safe implementation for {@link Provider}.
+   * <p>
+   * registrations replace an immutable snapshot of the implementations, lookups never lock and are cached per
+   * requested class until the next registration. a class which is not registered exactly resolves to the latest
+   * registered implementation that is assignable to it. the factories are consulted only when the lookup misses.
+   */
+  @SuppressWarnings("unchecked")
+  @NoArgsConstructor(access = AccessLevel.PRIVATE)
+  final class Concurrent implements Provider {
+
+    /**
+     * the factories snapshot.
+     */
+    @NotNull
+    private volatile Map<Class<?>, Supplier<?>> factories = Map.of();
+
+    /**
+     * the implementations snapshot.
+     */
+    @NotNull
+    private volatile Map<Class<?>, Object> implementations = Map.of();
+
+    /**
+     * the resolved implementations of the current snapshot.
+     */
+    @NotNull
+    private volatile ClassValue<Optional<Object>> resolved = Concurrent.resolver(
+      Map.of()
+    );
+
+    /**
+     * creates a resolver for the snapshot.
+     *
+     * @param implementations the implementations to create.
+     *
+     * @return a newly created resolver.
+     */
+    @NotNull
+    private static ClassValue<Optional<Object>> resolver(
+      @NotNull final Map<Class<?>, Object> implementations
+    ) {
+      return new ClassValue<>() {
+        @Override
+        protected Optional<Object> computeValue(final Class<?> type) {
+          final var exact = implementations.get(type);
+          if (exact != null) {
+            return Optional.of(exact);
+          }
+          Object found = null;
+          for (final var entry : implementations.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+              found = entry.getValue();
+            }
+          }
+          return Optional.ofNullable(found);
+        }
+      };
+    }
+
+    @NotNull
+    @Override
+    public <T> Optional<T> provide(@NotNull final Class<? extends T> cls) {
+      final var resolved = this.resolved.get(cls);
+      if (resolved.isPresent() || this.factories.isEmpty()) {
+        return (Optional<T>) resolved;
+      }
+      for (final var entry : this.factories.entrySet()) {
+        if (cls.isAssignableFrom(entry.getKey())) {
+          final var created = entry.getValue().get();
+          if (created != null) {
+            this.register(created);
+          }
+          return (Optional<T>) this.resolved.get(cls);
+        }
+      }
+      return Optional.empty();
+    }
+
+    @NotNull
+    @Override
+    public Provider register(@NotNull final Object object) {
+      synchronized (this) {
+        final var implementations = new LinkedHashMap<>(this.implementations);
+        implementations.remove(object.getClass());
+        implementations.put(object.getClass(), object);
+        final var snapshot = Collections.unmodifiableMap(implementations);
+        this.implementations = snapshot;
+        this.resolved = Concurrent.resolver(snapshot);
+      }
+      return this;
+    }
+
+    @NotNull
+    @Override
+    public Provider registerFactory(
+      @NotNull final Class<?> cls,
+      @NotNull final Supplier<?> factory
+    ) {
+      synchronized (this) {
+        final var factories = new LinkedHashMap<>(this.factories);
+        factories.put(cls, factory);
+        this.factories = Collections.unmodifiableMap(factories);
+      }
+      return this;
+    }
+
+    @NotNull
+    @Override
+    public Provider unregisterFactory(@NotNull final Class<?> cls) {
+      synchronized (this) {
+        final var factories = new LinkedHashMap<>(this.factories);
+        factories.remove(cls);
+        this.factories = Collections.unmodifiableMap(factories);
+      }
+      return this;
+    }
+
+    @NotNull
+    @Override
+    public Provider unregisterIf(@NotNull final Predicate<Object> predicate) {
+      synchronized (this) {
+        final var factories = new LinkedHashMap<>(this.factories);
+        final var implementations = new LinkedHashMap<>(this.implementations);
+        final var factoriesRemoved = factories.values().removeIf(predicate);
+        if (implementations.values().removeIf(predicate)) {
+          final var snapshot = Collections.unmodifiableMap(implementations);
+          this.implementations = snapshot;
+          this.resolved = Concurrent.resolver(snapshot);
+        }
+        if (factoriesRemoved) {
+          this.factories = Collections.unmodifiableMap(factories);
+        }
+      }
+      return this;
+    }
   }
 }
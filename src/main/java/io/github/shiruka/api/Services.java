@@ -0,0 +1,183 @@
+package io.github.shiruka.api;
+
+import com.google.common.base.Throwables;
+import io.github.shiruka.api.event.EventManager;
+import io.github.shiruka.api.plugin.Plugin;
+import io.github.shiruka.api.scheduler.Scheduler;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import lombok.experimental.UtilityClass;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that contains the hot services of {@link Shiruka}.
+ * <p>
+ * each service is looked up from the {@link Provider} until the first successful lookup, then it is bound to its call
+ * site as a constant so the JIT can fold the accessors into a constant. the services are bound once, re-registering
+ * them afterwards does not change these accessors.
+ */
+@UtilityClass
+class Services {
+
+  /**
+   * the resolve method.
+   */
+  private static final MethodHandle RESOLVE;
+
+  static {
+    try {
+      RESOLVE =
+        MethodHandles
+          .lookup()
+          .findStatic(
+            Services.class,
+            "resolve",
+            MethodType.methodType(
+              Object.class,
+              MutableCallSite.class,
+              Class.class
+            )
+          );
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  /**
+   * the async scheduler invoker.
+   */
+  private static final MethodHandle ASYNC_SCHEDULER = Services.invoker(
+    Scheduler.Async.class
+  );
+
+  /**
+   * the event manager invoker.
+   */
+  private static final MethodHandle EVENT_MANAGER = Services.invoker(
+    EventManager.class
+  );
+
+  /**
+   * the plugin manager invoker.
+   */
+  private static final MethodHandle PLUGIN_MANAGER = Services.invoker(
+    Plugin.Manager.class
+  );
+
+  /**
+   * the sync scheduler invoker.
+   */
+  private static final MethodHandle SYNC_SCHEDULER = Services.invoker(
+    Scheduler.Sync.class
+  );
+
+  /**
+   * obtains the async scheduler.
+   *
+   * @return async scheduler.
+   */
+  @NotNull
+  static Scheduler.Async asyncScheduler() {
+    try {
+      return (Scheduler.Async) Services.ASYNC_SCHEDULER.invokeExact();
+    } catch (final Throwable e) {
+      throw Services.propagate(e);
+    }
+  }
+
+  /**
+   * obtains the event manager.
+   *
+   * @return event manager.
+   */
+  @NotNull
+  static EventManager eventManager() {
+    try {
+      return (EventManager) Services.EVENT_MANAGER.invokeExact();
+    } catch (final Throwable e) {
+      throw Services.propagate(e);
+    }
+  }
+
+  /**
+   * obtains the plugin manager.
+   *
+   * @return plugin manager.
+   */
+  @NotNull
+  static Plugin.Manager pluginManager() {
+    try {
+      return (Plugin.Manager) Services.PLUGIN_MANAGER.invokeExact();
+    } catch (final Throwable e) {
+      throw Services.propagate(e);
+    }
+  }
+
+  /**
+   * obtains the sync scheduler.
+   *
+   * @return sync scheduler.
+   */
+  @NotNull
+  static Scheduler.Sync syncScheduler() {
+    try {
+      return (Scheduler.Sync) Services.SYNC_SCHEDULER.invokeExact();
+    } catch (final Throwable e) {
+      throw Services.propagate(e);
+    }
+  }
+
+  /**
+   * creates an invoker that resolves the service until it is bound.
+   *
+   * @param type the type to create.
+   *
+   * @return a newly created invoker.
+   */
+  @NotNull
+  private static MethodHandle invoker(@NotNull final Class<?> type) {
+    final var site = new MutableCallSite(MethodType.methodType(type));
+    site.setTarget(
+      MethodHandles
+        .insertArguments(Services.RESOLVE, 0, site, type)
+        .asType(site.type())
+    );
+    return site.dynamicInvoker();
+  }
+
+  /**
+   * propagates the throwable as an unchecked exception.
+   *
+   * @param throwable the throwable to propagate.
+   *
+   * @return unchecked exception.
+   */
+  @NotNull
+  private static RuntimeException propagate(
+    @NotNull final Throwable throwable
+  ) {
+    Throwables.throwIfUnchecked(throwable);
+    return new IllegalStateException(throwable);
+  }
+
+  /**
+   * resolves the service from the provider and binds it to the call site.
+   *
+   * @param site the site to resolve.
+   * @param type the type to resolve.
+   *
+   * @return resolved service.
+   */
+  @NotNull
+  private static Object resolve(
+    @NotNull final MutableCallSite site,
+    @NotNull final Class<?> type
+  ) {
+    final var service = Shiruka.provideOrThrow(type);
+    site.setTarget(MethodHandles.constant(type, service));
+    MutableCallSite.syncAll(new MutableCallSite[] { site });
+    return service;
+  }
+}
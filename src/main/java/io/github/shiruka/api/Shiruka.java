@@ -19,7 +19,7 @@ public interface Shiruka {
    */
   @NotNull
   static Scheduler.Async asyncScheduler() {
-    return Shiruka.provideOrThrow(Scheduler.Async.class);
+    return Services.asyncScheduler();
   }
 
   /**
@@ -31,7 +31,7 @@ public interface Shiruka {
    */
   @NotNull
   static EventManager eventManager() {
-    return Shiruka.provideOrThrow(EventManager.class);
+    return Services.eventManager();
   }
 
   /**
@@ -53,7 +53,7 @@ public interface Shiruka {
    */
   @NotNull
   static Plugin.Manager pluginManager() {
-    return Shiruka.provideOrThrow(Plugin.Manager.class);
+    return Services.pluginManager();
   }
 
   /**
@@ -122,6 +122,6 @@ public interface Shiruka {
    */
   @NotNull
   static Scheduler.Sync syncScheduler() {
-    return Shiruka.provideOrThrow(Scheduler.Sync.class);
+    return Services.syncScheduler();
   }
 }
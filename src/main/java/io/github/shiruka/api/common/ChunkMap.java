@@ -0,0 +1,183 @@
+package io.github.shiruka.api.common;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectCollection;
+import java.util.Objects;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents maps of chunk positions to objects.
+ * <p>
+ * the positions are packed with {@link Positions#chunk(int, int)} into the keys of a primitive
+ * open-addressing map, so the positions are looked up without allocating.
+ *
+ * @param <T> type of the object.
+ */
+public final class ChunkMap<T> {
+
+  /**
+   * the map.
+   */
+  @NotNull
+  private final Long2ObjectMap<T> map;
+
+  /**
+   * ctor.
+   *
+   * @param initialCapacity the initial capacity.
+   */
+  public ChunkMap(final int initialCapacity) {
+    this.map = new Long2ObjectOpenHashMap<>(initialCapacity);
+  }
+
+  /**
+   * ctor.
+   */
+  public ChunkMap() {
+    this(16);
+  }
+
+  /**
+   * clears the map.
+   */
+  public void clear() {
+    this.map.clear();
+  }
+
+  /**
+   * checks if the position contains.
+   *
+   * @param x the x to check.
+   * @param z the z to check.
+   *
+   * @return {@code true} if the position contains.
+   */
+  public boolean containsKey(final int x, final int z) {
+    return this.map.containsKey(Positions.chunk(x, z));
+  }
+
+  /**
+   * runs the consumer for each entry.
+   *
+   * @param consumer the consumer to run.
+   */
+  public void forEach(@NotNull final Consumer<T> consumer) {
+    for (final var entry : Long2ObjectMaps.fastIterable(this.map)) {
+      consumer.accept(
+        Positions.chunkX(entry.getLongKey()),
+        Positions.chunkZ(entry.getLongKey()),
+        entry.getValue()
+      );
+    }
+  }
+
+  /**
+   * gets the value at the position.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return value at the position.
+   */
+  @Nullable
+  public T get(final int x, final int z) {
+    return this.map.get(Positions.chunk(x, z));
+  }
+
+  @Override
+  public int hashCode() {
+    return this.map.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || this.getClass() != obj.getClass()) {
+      return false;
+    }
+    final var that = (ChunkMap<?>) obj;
+    return Objects.equals(this.map, that.map);
+  }
+
+  @Override
+  public String toString() {
+    return this.map.toString();
+  }
+
+  /**
+   * checks if the map is empty.
+   *
+   * @return {@code true} if the map is empty.
+   */
+  public boolean isEmpty() {
+    return this.map.isEmpty();
+  }
+
+  /**
+   * puts the value at the position.
+   *
+   * @param x the x to put.
+   * @param z the z to put.
+   * @param value the value to put.
+   *
+   * @return previous value at the position.
+   */
+  @Nullable
+  public T put(final int x, final int z, @NotNull final T value) {
+    return this.map.put(Positions.chunk(x, z), value);
+  }
+
+  /**
+   * removes the value at the position.
+   *
+   * @param x the x to remove.
+   * @param z the z to remove.
+   *
+   * @return removed value.
+   */
+  @Nullable
+  public T remove(final int x, final int z) {
+    return this.map.remove(Positions.chunk(x, z));
+  }
+
+  /**
+   * obtains the size.
+   *
+   * @return size.
+   */
+  public int size() {
+    return this.map.size();
+  }
+
+  /**
+   * obtains the values.
+   *
+   * @return values.
+   */
+  @NotNull
+  public ObjectCollection<T> values() {
+    return this.map.values();
+  }
+
+  /**
+   * an interface to determine consumers of the entries.
+   *
+   * @param <T> type of the object.
+   */
+  @FunctionalInterface
+  public interface Consumer<T> {
+    /**
+     * accepts the entry.
+     *
+     * @param x the x to accept.
+     * @param z the z to accept.
+     * @param value the value to accept.
+     */
+    void accept(int x, int z, @NotNull T value);
+  }
+}
@@ -0,0 +1,153 @@
+package io.github.shiruka.api.common;
+
+import io.github.shiruka.api.base.Vector2i;
+import io.github.shiruka.api.base.Vector3i;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * an interface that contains utility methods for packing positions into longs.
+ * <p>
+ * chunk positions are packed as the x in the high 32 bits and the z in the low 32 bits. block positions are packed as
+ * 26 bits of x, 26 bits of z and 12 bits of y, so the x and the z are between {@code -33554432} and {@code 33554431}
+ * and the y is between {@code -2048} and {@code 2047}.
+ */
+public interface Positions {
+  /**
+   * the bit count of the block x and z.
+   */
+  int BLOCK_HORIZONTAL_BITS = 26;
+
+  /**
+   * the bit count of the block y.
+   */
+  int BLOCK_Y_BITS = 12;
+
+  /**
+   * the shift of the block x.
+   */
+  int BLOCK_X_SHIFT = Positions.BLOCK_HORIZONTAL_BITS + Positions.BLOCK_Y_BITS;
+
+  /**
+   * the shift of the block z.
+   */
+  int BLOCK_Z_SHIFT = Positions.BLOCK_Y_BITS;
+
+  /**
+   * the mask of the block x and z.
+   */
+  long BLOCK_HORIZONTAL_MASK = (1L << Positions.BLOCK_HORIZONTAL_BITS) - 1L;
+
+  /**
+   * the mask of the block y.
+   */
+  long BLOCK_Y_MASK = (1L << Positions.BLOCK_Y_BITS) - 1L;
+
+  /**
+   * packs the block position into a long.
+   *
+   * @param x the x to pack.
+   * @param y the y to pack.
+   * @param z the z to pack.
+   *
+   * @return packed block position.
+   */
+  static long block(final int x, final int y, final int z) {
+    return (
+      (x & Positions.BLOCK_HORIZONTAL_MASK) << Positions.BLOCK_X_SHIFT |
+      (z & Positions.BLOCK_HORIZONTAL_MASK) << Positions.BLOCK_Z_SHIFT |
+      y & Positions.BLOCK_Y_MASK
+    );
+  }
+
+  /**
+   * packs the block position into a long.
+   *
+   * @param position the position to pack.
+   *
+   * @return packed block position.
+   */
+  static long block(@NotNull final Vector3i position) {
+    return Positions.block(position.x(), position.y(), position.z());
+  }
+
+  /**
+   * unpacks the x of the block position.
+   *
+   * @param packed the packed to unpack.
+   *
+   * @return x of the block position.
+   */
+  static int blockX(final long packed) {
+    return (int) (packed >> Positions.BLOCK_X_SHIFT);
+  }
+
+  /**
+   * unpacks the y of the block position.
+   *
+   * @param packed the packed to unpack.
+   *
+   * @return y of the block position.
+   */
+  static int blockY(final long packed) {
+    final var shift = Long.SIZE - Positions.BLOCK_Y_BITS;
+    return (int) (packed << shift >> shift);
+  }
+
+  /**
+   * unpacks the z of the block position.
+   *
+   * @param packed the packed to unpack.
+   *
+   * @return z of the block position.
+   */
+  static int blockZ(final long packed) {
+    final var left = Long.SIZE - Positions.BLOCK_X_SHIFT;
+    final var right = Long.SIZE - Positions.BLOCK_HORIZONTAL_BITS;
+    return (int) (packed << left >> right);
+  }
+
+  /**
+   * packs the chunk position into a long.
+   *
+   * @param x the x to pack.
+   * @param z the z to pack.
+   *
+   * @return packed chunk position.
+   */
+  static long chunk(final int x, final int z) {
+    return (long) x << 32 | z & 0xFFFFFFFFL;
+  }
+
+  /**
+   * packs the chunk position into a long.
+   *
+   * @param position the position to pack.
+   *
+   * @return packed chunk position.
+   */
+  static long chunk(@NotNull final Vector2i position) {
+    return Positions.chunk(position.x(), position.y());
+  }
+
+  /**
+   * unpacks the x of the chunk position.
+   *
+   * @param packed the packed to unpack.
+   *
+   * @return x of the chunk position.
+   */
+  static int chunkX(final long packed) {
+    return (int) (packed >> 32);
+  }
+
+  /**
+   * unpacks the z of the chunk position.
+   *
+   * @param packed the packed to unpack.
+   *
+   * @return z of the chunk position.
+   */
+  static int chunkZ(final long packed) {
+    return (int) packed;
+  }
+}
@@ -1,5 +1,6 @@
 package io.github.shiruka.api.event;
 
+import io.github.shiruka.api.plugin.PluginResources;
 import net.kyori.event.EventSubscriber;
 import net.kyori.event.PostOrders;
 import org.apache.commons.lang3.function.FailableConsumer;
@@ -8,6 +9,8 @@ import org.jetbrains.annotations.NotNull;
 
 /**
  * a class that represents event listener.
+ * <p>
+ * the usage of the listener is accounted to the plugin that defines the run's class, see {@link PluginResources}.
  *
  * @param run the run.
  * @param postOrder the post order.
@@ -50,6 +53,14 @@ public record EventListener<E extends Event>(
 
   @Override
   public void on(@NonNull final E event) throws Throwable {
-    this.run.accept(event);
+    if (!PluginResources.enabled()) {
+      this.run.accept(event);
+      return;
+    }
+    PluginResources.measure(
+      this.run,
+      PluginResources.Source.LISTENER,
+      () -> this.run.accept(event)
+    );
   }
 }
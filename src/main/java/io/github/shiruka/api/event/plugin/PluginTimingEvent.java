@@ -0,0 +1,13 @@
+package io.github.shiruka.api.event.plugin;
+
+import io.github.shiruka.api.event.Event;
+import io.github.shiruka.api.plugin.PluginTimings;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents events which are posted when a plugin lifecycle phase is timed.
+ *
+ * @param entry the entry.
+ */
+public record PluginTimingEvent(@NotNull PluginTimings.Entry entry)
+  implements Event {}
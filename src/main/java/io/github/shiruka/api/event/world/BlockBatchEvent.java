@@ -0,0 +1,18 @@
+package io.github.shiruka.api.event.world;
+
+import io.github.shiruka.api.event.Event;
+import io.github.shiruka.api.world.BlockBatch;
+import io.github.shiruka.api.world.World;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents events which are posted once after a {@link BlockBatch} is applied.
+ *
+ * @param world the world.
+ * @param changes the changes.
+ */
+public record BlockBatchEvent(
+  @NotNull World world,
+  @NotNull BlockBatch.Changes changes
+)
+  implements Event {}
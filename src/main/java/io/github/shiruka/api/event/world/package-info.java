@@ -0,0 +1,4 @@
+/**
+ * the package that contains world event classes.
+ */
+package io.github.shiruka.api.event.world;
@@ -1,8 +1,9 @@
 package io.github.shiruka.api.plugin;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.type.MapType;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import io.github.shiruka.api.exception.InvalidDescriptionException;
@@ -14,18 +15,21 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.function.UnaryOperator;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import lombok.AccessLevel;
@@ -167,6 +171,14 @@ public interface Plugin {
     @NotNull
     Plugin.Container loadPlugin(@NotNull File file)
       throws InvalidPluginException, UnknownDependencyException;
+
+    /**
+     * releases the plugin's class loader and everything the loader holds for the plugin, whether the plugin is enabled
+     * or not.
+     *
+     * @param plugin the plugin to unload.
+     */
+    default void unloadPlugin(@NotNull final Container plugin) {}
   }
 
   /**
@@ -208,7 +220,23 @@ public interface Plugin {
      * @param closeClassLoaders the close class loaders to disable.
      */
     default void disablePlugins(final boolean closeClassLoaders) {
-      for (final var plugin : this.plugins()) {
+      this.disablePlugins(this.plugins(), closeClassLoaders);
+    }
+
+    /**
+     * disables the plugins, the plugins that depend on each other are disabled in the reverse dependency order and the
+     * others concurrently.
+     * <p>
+     * the default implementation disables the plugins one by one in the given order.
+     *
+     * @param plugins the plugins to disable.
+     * @param closeClassLoaders the close class loaders to disable.
+     */
+    default void disablePlugins(
+      @NotNull final Collection<Container> plugins,
+      final boolean closeClassLoaders
+    ) {
+      for (final var plugin : plugins) {
         this.disablePlugin(plugin, closeClassLoaders);
       }
     }
@@ -220,6 +248,21 @@ public interface Plugin {
      */
     void enablePlugin(@NotNull Container plugin);
 
+    /**
+     * enables the plugins, the plugins that depend on each other are enabled in the dependency order and the others
+     * concurrently.
+     * <p>
+     * a failure while enabling a plugin does not affect the other plugins. the default implementation enables the
+     * plugins one by one in the given order.
+     *
+     * @param plugins the plugins to enable.
+     */
+    default void enablePlugins(@NotNull final Collection<Container> plugins) {
+      for (final var plugin : plugins) {
+        this.enablePlugin(plugin);
+      }
+    }
+
     /**
      * checks if the plugin is enabled.
      *
@@ -253,6 +296,18 @@ public interface Plugin {
       @NotNull Container depend
     );
 
+    /**
+     * obtains names of the unloaded plugins whose class loaders are not garbage-collected after the grace period.
+     *
+     * @param grace the grace to obtain.
+     *
+     * @return leaked plugin names, empty by default.
+     */
+    @NotNull
+    default Collection<String> leakedPlugins(@NotNull final Duration grace) {
+      return Collections.emptyList();
+    }
+
     /**
      * loads the plugin from the given.
      *
@@ -312,6 +367,32 @@ public interface Plugin {
     @NotNull
     Path pluginsDirectory();
 
+    /**
+     * reloads the plugin from its file with a new class loader.
+     * <p>
+     * the plugin is loaded again first, so the plugin stays as it is if loading fails. then the plugin is disabled and
+     * unregistered, its class loader is closed and tracked by {@link #leakedPlugins(Duration)}, and the reloaded plugin
+     * is enabled if it was enabled.
+     *
+     * @param plugin the plugin to reload.
+     *
+     * @return reloaded plugin.
+     *
+     * @throws InvalidPluginException when the file is not a valid plugin.
+     * @throws UnknownDependencyException if a required dependency could not be resolved.
+     * @throws IllegalStateException if other plugins depend on the plugin, since they would keep its old classes.
+     * @throws UnsupportedOperationException if the manager does not support reloading, by default.
+     */
+    @Nullable
+    default Container reloadPlugin(@NotNull final Container plugin)
+      throws InvalidPluginException, UnknownDependencyException {
+      throw new UnsupportedOperationException(
+        "%s does not support reloading plugins!".formatted(
+            this.getClass().getName()
+          )
+      );
+    }
+
     /**
      * registers a new plugin loader.
      *
@@ -319,6 +400,16 @@ public interface Plugin {
      * @param loader the loader to register.
      */
     void registerLoader(@NotNull Pattern pattern, @NotNull Loader loader);
+
+    /**
+     * obtains the timings of the plugin lifecycle phases.
+     *
+     * @return timings, an empty timings that records nothing by default.
+     */
+    @NotNull
+    default PluginTimings timings() {
+      return new PluginTimings(0);
+    }
   }
 
   /**
@@ -326,7 +417,6 @@ public interface Plugin {
    */
   @Getter
   @Accessors(fluent = true)
-  @RequiredArgsConstructor
   final class Container {
 
     /**
@@ -360,10 +450,11 @@ public interface Plugin {
     private final Logger logger;
 
     /**
-     * the plugin.
+     * the plugin factory.
      */
     @NotNull
-    private final Plugin plugin;
+    @Getter(AccessLevel.NONE)
+    private final Supplier<Plugin> pluginFactory;
 
     /**
      * the plugin file.
@@ -371,25 +462,154 @@ public interface Plugin {
     @NotNull
     private final File pluginFile;
 
+    /**
+     * the resources.
+     */
+    @NotNull
+    private final PluginResources resources;
+
     /**
      * the enabled.
      */
     private boolean enabled;
 
+    /**
+     * the plugin.
+     */
+    @Nullable
+    @Getter(AccessLevel.NONE)
+    private volatile Plugin plugin;
+
+    /**
+     * ctor.
+     *
+     * @param classLoader the class loader.
+     * @param dataFolder the data folder.
+     * @param description the description.
+     * @param loader the loader.
+     * @param logger the logger.
+     * @param pluginFactory the plugin factory, which runs when the plugin is used for the first time.
+     * @param pluginFile the plugin file.
+     */
+    public Container(
+      @NotNull final ClassLoader classLoader,
+      @NotNull final Path dataFolder,
+      @NotNull final Description description,
+      @NotNull final Loader loader,
+      @NotNull final Logger logger,
+      @NotNull final Supplier<Plugin> pluginFactory,
+      @NotNull final File pluginFile
+    ) {
+      this.classLoader = classLoader;
+      this.dataFolder = dataFolder;
+      this.description = description;
+      this.loader = loader;
+      this.logger = logger;
+      this.pluginFactory = pluginFactory;
+      this.pluginFile = pluginFile;
+      this.resources = new PluginResources(classLoader);
+    }
+
+    /**
+     * ctor.
+     *
+     * @param classLoader the class loader.
+     * @param dataFolder the data folder.
+     * @param description the description.
+     * @param loader the loader.
+     * @param logger the logger.
+     * @param plugin the plugin.
+     * @param pluginFile the plugin file.
+     */
+    public Container(
+      @NotNull final ClassLoader classLoader,
+      @NotNull final Path dataFolder,
+      @NotNull final Description description,
+      @NotNull final Loader loader,
+      @NotNull final Logger logger,
+      @NotNull final Plugin plugin,
+      @NotNull final File pluginFile
+    ) {
+      this(
+        classLoader,
+        dataFolder,
+        description,
+        loader,
+        logger,
+        () -> plugin,
+        pluginFile
+      );
+      this.plugin = plugin;
+    }
+
+    /**
+     * checks if the plugin instance is created.
+     *
+     * @return {@code true} if the plugin instance is created.
+     */
+    public boolean activated() {
+      return this.plugin != null;
+    }
+
     /**
      * sets the enabled.
+     * <p>
+     * the plugin's callbacks do not run until the plugin is activated.
      *
      * @param enabled the enabled to set.
      */
-    public void enabled(final boolean enabled) {
+    public synchronized void enabled(final boolean enabled) {
       if (this.enabled == enabled) {
         return;
       }
       this.enabled = enabled;
-      if (this.enabled) {
-        this.plugin.onEnable();
+      final var plugin = this.plugin;
+      if (plugin == null) {
+        return;
+      }
+      if (!this.enabled) {
+        plugin.onDisable();
+      } else if (PluginResources.enabled()) {
+        this.resources.measure(
+            PluginResources.Source.ENABLE,
+            plugin::onEnable
+          );
       } else {
-        this.plugin.onDisable();
+        plugin.onEnable();
+      }
+    }
+
+    /**
+     * obtains the plugin, creates and enables it if the plugin is not activated yet.
+     * <p>
+     * lazy plugins are activated by their activation events and their services, this method activates them only when
+     * the instance itself is required.
+     *
+     * @return plugin.
+     */
+    @NotNull
+    public Plugin plugin() {
+      final var plugin = this.plugin;
+      if (plugin != null) {
+        return plugin;
+      }
+      synchronized (this) {
+        if (this.plugin == null) {
+          final var created = Objects.requireNonNull(
+            this.pluginFactory.get(),
+            "plugin"
+          );
+          this.plugin = created;
+          if (this.enabled && PluginResources.enabled()) {
+            this.resources.measure(
+                PluginResources.Source.ENABLE,
+                created::onEnable
+              );
+          } else if (this.enabled) {
+            created.onEnable();
+          }
+        }
+        return this.plugin;
       }
     }
   }
@@ -430,6 +650,14 @@ public interface Plugin {
    *     - 'test-load-before'
    *   // default is name
    *   prefix: 'Test Plugin'
+   *   // default is false
+   *   lazy: true
+   *   // default is empty
+   *   activation-events:
+   *     - 'io.github.shiruka.api.event.plugin.PluginEnableEvent'
+   *   // default is empty
+   *   services:
+   *     - 'io.github.shiruka.test.TestService'
    * }
    * </pre>
    *
@@ -447,6 +675,10 @@ public interface Plugin {
    * @param softDepends soft-dependencies, which the server DON'T HAVE TO have, of the plugin.
    * @param loadBefore loads the plugin before these plugins.
    * @param website website of the plugin.
+   * @param lazy whether the plugin's main class is created on the first use instead of the plugin load.
+   * @param activationEvents event class names that activate the lazy plugin when posted.
+   * @param services service class names that activate the lazy plugin when they are requested from the
+   *   {@link io.github.shiruka.api.Provider}.
    *
    * @see <a href="https://semver.org/">version syntax</a>
    */
@@ -464,7 +696,10 @@ public interface Plugin {
     @NotNull Collection<String> depends,
     @NotNull Collection<String> softDepends,
     @NotNull Collection<String> loadBefore,
-    @NotNull String website
+    @NotNull String website,
+    boolean lazy,
+    @NotNull Collection<String> activationEvents,
+    @NotNull Collection<String> services
   ) {
     /**
      * the mapper.
@@ -473,13 +708,6 @@ public interface Plugin {
       .enable(YAMLGenerator.Feature.INDENT_ARRAYS)
       .enable(SerializationFeature.INDENT_OUTPUT);
 
-    /**
-     * the map type.
-     */
-    private static final MapType MAP_TYPE = Description.MAPPER
-      .getTypeFactory()
-      .constructMapType(HashMap.class, String.class, Object.class);
-
     /**
      * the pattern for validate plugin names.
      */
@@ -487,25 +715,142 @@ public interface Plugin {
       .compile("^[A-Za-z0-9 _.-]+$")
       .asMatchPredicate();
 
+    /**
+     * ctor.
+     *
+     * @param name name of the plugin.
+     * @param main plugin's main class path.
+     * @param version version of the plugin.
+     * @param description description of the plugin.
+     * @param loadOrder load order of the plugin.
+     * @param authors authors of the plugin.
+     * @param contributors contributors of the plugin.
+     * @param prefix prefix, which will use for logging, of the plugin.
+     * @param provides plugin APIs which this plugin provides.
+     * @param depends dependencies, which the server HAVE TO have, of the plugin.
+     * @param softDepends soft-dependencies, which the server DON'T HAVE TO have, of the plugin.
+     * @param loadBefore loads the plugin before these plugins.
+     * @param website website of the plugin.
+     */
+    public Description(
+      @NotNull final String name,
+      @NotNull final String main,
+      @NotNull final Version version,
+      @NotNull final String description,
+      @NotNull final LoadOrder loadOrder,
+      @NotNull final Collection<String> authors,
+      @NotNull final Collection<String> contributors,
+      @NotNull final String prefix,
+      @NotNull final Collection<String> provides,
+      @NotNull final Collection<String> depends,
+      @NotNull final Collection<String> softDepends,
+      @NotNull final Collection<String> loadBefore,
+      @NotNull final String website
+    ) {
+      this(
+        name,
+        main,
+        version,
+        description,
+        loadOrder,
+        authors,
+        contributors,
+        prefix,
+        provides,
+        depends,
+        softDepends,
+        loadBefore,
+        website,
+        false,
+        Collections.emptySet(),
+        Collections.emptySet()
+      );
+    }
+
     /**
      * creates a description instance from the stream.
+     * <p>
+     * reads the YAML tokens directly into the description without building an intermediate map.
      *
      * @param stream the stream to create.
      *
      * @return a newly created description from stream.
      *
      * @throws IOException if something goes wrong when reading values in the stream.
-     * @throws InvalidDescriptionException if something goes wrong when parsing the map.
+     * @throws InvalidDescriptionException if something goes wrong when parsing the stream.
      */
     @NotNull
     public static Description of(@NotNull final InputStream stream)
       throws IOException, InvalidDescriptionException {
-      return Description.of(
-        Description.MAPPER.<Map<String, Object>>readValue(
-          stream,
-          Description.MAP_TYPE
-        )
-      );
+      try (final var parser = Description.MAPPER.createParser(stream)) {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+          throw new InvalidDescriptionException(
+            "The plugin file must contain a map!"
+          );
+        }
+        String name = null;
+        String main = null;
+        String version = null;
+        String description = null;
+        String load = null;
+        Collection<String> authors = null;
+        Collection<String> contributors = null;
+        String prefix = null;
+        Collection<String> provides = null;
+        Collection<String> depends = null;
+        Collection<String> softDepends = null;
+        Collection<String> loadBefore = null;
+        String website = null;
+        Boolean lazy = null;
+        Collection<String> activationEvents = null;
+        Collection<String> services = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final var key = parser.currentName();
+          parser.nextToken();
+          switch (key) {
+            case "name" -> name = Description.string(parser, key);
+            case "main" -> main = Description.string(parser, key);
+            case "version" -> version = Description.string(parser, key);
+            case "description" -> description =
+              Description.string(parser, key);
+            case "load" -> load = Description.string(parser, key);
+            case "authors" -> authors = Description.strings(parser, key);
+            case "contributors" -> contributors =
+              Description.strings(parser, key);
+            case "prefix" -> prefix = Description.string(parser, key);
+            case "provides" -> provides = Description.strings(parser, key);
+            case "depends" -> depends = Description.strings(parser, key);
+            case "soft-depends" -> softDepends =
+              Description.strings(parser, key);
+            case "load-before" -> loadBefore =
+              Description.strings(parser, key);
+            case "website" -> website = Description.string(parser, key);
+            case "lazy" -> lazy = Description.bool(parser, key);
+            case "activation-events" -> activationEvents =
+              Description.strings(parser, key);
+            case "services" -> services = Description.strings(parser, key);
+            default -> parser.skipChildren();
+          }
+        }
+        return Description.create(
+          name,
+          main,
+          version,
+          description,
+          load,
+          authors,
+          contributors,
+          prefix,
+          provides,
+          depends,
+          softDepends,
+          loadBefore,
+          website,
+          lazy,
+          activationEvents,
+          services
+        );
+      }
     }
 
     /**
@@ -520,222 +865,337 @@ public interface Plugin {
     @NotNull
     public static Description of(@NotNull final Map<String, Object> map)
       throws InvalidDescriptionException {
-      final var name = Description
-        .essential(map, "name", String.class)
-        .replace(' ', '_');
-      Description.validateName(name);
-      final var main = Description.essential(map, "main", String.class);
-      final var defaultVersion = Version.of(1);
-      final var version = Description.optional(
-        map,
-        "version",
-        String.class,
-        defaultVersion,
-        versionString -> {
-          try {
-            return Version.of(versionString);
-          } catch (final ParseException e) {
-            Description.log.error(
-              "Couldn't parse the version %s".formatted(versionString),
-              e
-            );
-            Description.log.info("Using default version(1.0.0) instead");
-          }
-          return null;
-        }
-      );
-      final var description = Description.optional(
-        map,
-        "description",
-        String.class,
-        ""
-      );
-      final var loadOrder = Description.optional(
-        map,
-        "load",
-        String.class,
-        LoadOrder.POST_WORLD,
-        s -> LoadOrder.byType(s).orElse(null)
-      );
-      final var authors = Description.optionalStringCollection(map, "authors");
-      final var contributors = Description.optionalStringCollection(
-        map,
-        "contributors"
-      );
-      final var prefix = Description.optional(
-        map,
-        "prefix",
-        String.class,
-        name
-      );
-      final var depends = Description.optionalStringCollection(map, "depends");
-      final var provides = Description.optionalStringCollection(
-        map,
-        "provides"
-      );
-      final var softDepends = Description.optionalStringCollection(
-        map,
-        "soft-depends"
-      );
-      final var loadBefore = Description.optionalStringCollection(
-        map,
-        "load-before"
-      );
-      final var website = Description.optional(
-        map,
-        "website",
-        String.class,
-        ""
+      return Description.create(
+        Description.value(map, "name", String.class),
+        Description.value(map, "main", String.class),
+        Description.value(map, "version", String.class),
+        Description.value(map, "description", String.class),
+        Description.value(map, "load", String.class),
+        Description.strings(map, "authors"),
+        Description.strings(map, "contributors"),
+        Description.value(map, "prefix", String.class),
+        Description.strings(map, "provides"),
+        Description.strings(map, "depends"),
+        Description.strings(map, "soft-depends"),
+        Description.strings(map, "load-before"),
+        Description.value(map, "website", String.class),
+        Description.value(map, "lazy", Boolean.class),
+        Description.strings(map, "activation-events"),
+        Description.strings(map, "services")
       );
+    }
+
+    /**
+     * reads the boolean value at the current token.
+     *
+     * @param parser the parser to read.
+     * @param key the key to read.
+     *
+     * @return boolean value, {@code null} if the value is null.
+     *
+     * @throws InvalidDescriptionException if the value is not a boolean.
+     */
+    @Nullable
+    private static Boolean bool(
+      @NotNull final JsonParser parser,
+      @NotNull final String key
+    ) throws InvalidDescriptionException {
+      return switch (parser.currentToken()) {
+        case VALUE_NULL -> null;
+        case VALUE_TRUE -> true;
+        case VALUE_FALSE -> false;
+        default -> throw Description.invalidType(key, parser.currentToken());
+      };
+    }
+
+    /**
+     * creates a description instance from the raw values and applies the defaults.
+     *
+     * @param name the name to create.
+     * @param main the main to create.
+     * @param version the version to create.
+     * @param description the description to create.
+     * @param load the load to create.
+     * @param authors the authors to create.
+     * @param contributors the contributors to create.
+     * @param prefix the prefix to create.
+     * @param provides the provides to create.
+     * @param depends the depends to create.
+     * @param softDepends the soft depends to create.
+     * @param loadBefore the load before to create.
+     * @param website the website to create.
+     * @param lazy the lazy to create.
+     * @param activationEvents the activation events to create.
+     * @param services the services to create.
+     *
+     * @return a newly created description.
+     *
+     * @throws InvalidDescriptionException if the name or the main is missing or the name is invalid.
+     */
+    @NotNull
+    private static Description create(
+      @Nullable final String name,
+      @Nullable final String main,
+      @Nullable final String version,
+      @Nullable final String description,
+      @Nullable final String load,
+      @Nullable final Collection<String> authors,
+      @Nullable final Collection<String> contributors,
+      @Nullable final String prefix,
+      @Nullable final Collection<String> provides,
+      @Nullable final Collection<String> depends,
+      @Nullable final Collection<String> softDepends,
+      @Nullable final Collection<String> loadBefore,
+      @Nullable final String website,
+      @Nullable final Boolean lazy,
+      @Nullable final Collection<String> activationEvents,
+      @Nullable final Collection<String> services
+    ) throws InvalidDescriptionException {
+      final var validName = Description
+        .essential(name, "name")
+        .replace(' ', '_');
+      Description.validateName(validName);
       return new Description(
-        name,
-        main,
-        version,
-        description,
-        loadOrder,
-        authors,
-        contributors,
-        prefix,
-        depends,
-        provides,
-        softDepends,
-        loadBefore,
-        website
+        validName,
+        Description.essential(main, "main"),
+        Description.version(version),
+        Objects.requireNonNullElse(description, ""),
+        Optional
+          .ofNullable(load)
+          .flatMap(LoadOrder::byType)
+          .orElse(LoadOrder.POST_WORLD),
+        Description.orEmpty(authors),
+        Description.orEmpty(contributors),
+        Objects.requireNonNullElse(prefix, validName),
+        Description.orEmpty(provides),
+        Description.orEmpty(depends),
+        Description.orEmpty(softDepends),
+        Description.orEmpty(loadBefore),
+        Objects.requireNonNullElse(website, ""),
+        lazy != null && lazy,
+        Description.orEmpty(activationEvents),
+        Description.orEmpty(services)
       );
     }
 
     /**
-     * gets the value from the map at the given key.
+     * checks if the essential value exists.
      *
-     * @param map the map to get.
-     * @param key the key to get.
-     * @param type the type to get..
-     * @param <T> type of the final value.
+     * @param value the value to check.
+     * @param key the key to check.
      *
-     * @return requested value.
+     * @return value.
      *
-     * @throws InvalidDescriptionException if something goes wrong when parsing the map.
+     * @throws InvalidDescriptionException if the value is missing.
      */
     @NotNull
-    private static <T> T essential(
-      @NotNull final Map<String, Object> map,
-      @NotNull final String key,
-      @NotNull final Class<T> type
+    private static String essential(
+      @Nullable final String value,
+      @NotNull final String key
     ) throws InvalidDescriptionException {
-      try {
-        return Objects.requireNonNull(type.cast(map.get(key)));
-      } catch (final NullPointerException e) {
+      if (value == null) {
         throw new InvalidDescriptionException(
           "The key called %s not found in the plugin file!".formatted(key)
         );
-      } catch (final ClassCastException e) {
-        throw new InvalidDescriptionException(
-          "Invalid type for %s key, found %s!".formatted(
-              key,
-              map.get(key).getClass()
-            )
-        );
       }
+      return value;
     }
 
     /**
-     * gets the value from the map at the given key.
+     * creates an exception for the invalid type of the key.
      *
-     * @param map the map to get.
-     * @param key the key to get.
-     * @param type the type to get.
-     * @param defaultValue the default value to get.
-     * @param <T> type of the final value.
+     * @param key the key to create.
+     * @param found the found to create.
+     *
+     * @return a newly created exception.
+     */
+    @NotNull
+    private static InvalidDescriptionException invalidType(
+      @NotNull final String key,
+      @NotNull final Class<?> found
+    ) {
+      return new InvalidDescriptionException(
+        "Invalid type for %s key, found %s!".formatted(key, found)
+      );
+    }
+
+    /**
+     * creates an exception for the invalid type of the key.
+     * <p>
+     * the token is reported as the type that the yaml loader creates for it, so the message matches the one of
+     * {@link #of(Map)}.
      *
-     * @return requested value.
+     * @param key the key to create.
+     * @param found the found to create.
      *
-     * @throws InvalidDescriptionException if something goes wrong when parsing the map.
+     * @return a newly created exception.
      */
     @NotNull
-    private static <T> T optional(
-      @NotNull final Map<String, Object> map,
+    private static InvalidDescriptionException invalidType(
       @NotNull final String key,
-      @NotNull final Class<T> type,
-      @NotNull final T defaultValue
-    ) throws InvalidDescriptionException {
-      return Description.optional(
-        map,
+      @NotNull final JsonToken found
+    ) {
+      return Description.invalidType(
         key,
-        type,
-        defaultValue,
-        UnaryOperator.identity()
+        switch (found) {
+          case VALUE_STRING -> String.class;
+          case VALUE_NUMBER_INT -> Integer.class;
+          case VALUE_NUMBER_FLOAT -> Double.class;
+          case VALUE_TRUE, VALUE_FALSE -> Boolean.class;
+          case START_ARRAY -> ArrayList.class;
+          case START_OBJECT -> LinkedHashMap.class;
+          default -> Object.class;
+        }
       );
     }
 
+    /**
+     * returns the collection or an empty collection.
+     *
+     * @param collection the collection to return.
+     *
+     * @return collection or empty collection.
+     */
+    @NotNull
+    private static Collection<String> orEmpty(
+      @Nullable final Collection<String> collection
+    ) {
+      return collection == null ? Collections.emptySet() : collection;
+    }
+
+    /**
+     * reads the string value at the current token.
+     *
+     * @param parser the parser to read.
+     * @param key the key to read.
+     *
+     * @return string value, {@code null} if the value is null.
+     *
+     * @throws IOException if something goes wrong when reading the value.
+     * @throws InvalidDescriptionException if the value is not a string.
+     */
+    @Nullable
+    private static String string(
+      @NotNull final JsonParser parser,
+      @NotNull final String key
+    ) throws IOException, InvalidDescriptionException {
+      final var token = parser.currentToken();
+      if (token == JsonToken.VALUE_NULL) {
+        return null;
+      }
+      if (token != JsonToken.VALUE_STRING) {
+        throw Description.invalidType(key, token);
+      }
+      return parser.getText();
+    }
+
+    /**
+     * reads the string collection at the current token.
+     *
+     * @param parser the parser to read.
+     * @param key the key to read.
+     *
+     * @return string collection, {@code null} if the value is null.
+     *
+     * @throws IOException if something goes wrong when reading the value.
+     * @throws InvalidDescriptionException if the value is not a collection of scalars.
+     */
+    @Nullable
+    private static Collection<String> strings(
+      @NotNull final JsonParser parser,
+      @NotNull final String key
+    ) throws IOException, InvalidDescriptionException {
+      final var token = parser.currentToken();
+      if (token == JsonToken.VALUE_NULL) {
+        return null;
+      }
+      if (token != JsonToken.START_ARRAY) {
+        throw Description.invalidType(key, token);
+      }
+      final var values = new HashSet<String>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (!parser.currentToken().isScalarValue()) {
+          throw Description.invalidType(key, parser.currentToken());
+        }
+        values.add(parser.getText());
+      }
+      return values;
+    }
+
+    /**
+     * gets the string collection from the map at the given key.
+     *
+     * @param map the map to get.
+     * @param key the key to get.
+     *
+     * @return string collection, {@code null} if the map does not contain the key.
+     *
+     * @throws InvalidDescriptionException if the value is not a collection.
+     */
+    @Nullable
+    private static Collection<String> strings(
+      @NotNull final Map<String, Object> map,
+      @NotNull final String key
+    ) throws InvalidDescriptionException {
+      final var collection = Description.value(map, key, Collection.class);
+      if (collection == null) {
+        return null;
+      }
+      return ((Collection<?>) collection).stream()
+        .map(String::valueOf)
+        .collect(Collectors.toSet());
+    }
+
     /**
      * gets the value from the map at the given key.
      *
      * @param map the map to get.
      * @param key the key to get.
      * @param type the type to get.
-     * @param defaultValue the default value to get.
-     * @param mappingFunction the mapping function to get.
-     * @param <T> type of the map value.
-     * @param <Y> type of the final value.
+     * @param <T> type of the value.
      *
-     * @return requested value.
+     * @return value, {@code null} if the map does not contain the key.
      *
-     * @throws InvalidDescriptionException if something goes wrong when parsing the map.
+     * @throws InvalidDescriptionException if the value is not an instance of the type.
      */
-    @NotNull
-    private static <T, Y> Y optional(
+    @Nullable
+    private static <T> T value(
       @NotNull final Map<String, Object> map,
       @NotNull final String key,
-      @NotNull final Class<T> type,
-      @NotNull final Y defaultValue,
-      @NotNull final Function<@NotNull T, @Nullable Y> mappingFunction
+      @NotNull final Class<T> type
     ) throws InvalidDescriptionException {
       final var value = map.get(key);
       if (value == null) {
-        return defaultValue;
+        return null;
       }
-      try {
-        final var mapped = mappingFunction.apply(type.cast(value));
-        if (mapped == null) {
-          return defaultValue;
-        }
-        return mapped;
-      } catch (final NullPointerException e) {
-        throw new InvalidDescriptionException(
-          "The key called %s not found in the plugin file!".formatted(key)
-        );
-      } catch (final ClassCastException e) {
-        throw new InvalidDescriptionException(
-          "Invalid type for %s key, found %s!".formatted(key, value.getClass())
-        );
+      if (!type.isInstance(value)) {
+        throw Description.invalidType(key, value.getClass());
       }
+      return type.cast(value);
     }
 
     /**
-     * gets the value from the map at the given key.
-     *
-     * @param map the map to get.
-     * @param key the key to get.
+     * parses the version.
      *
-     * @return requested value.
+     * @param version the version to parse.
      *
-     * @throws InvalidDescriptionException if something goes wrong when parsing the map.
+     * @return parsed version, {@code 1.0.0} if the version is missing or invalid.
      */
     @NotNull
-    private static Collection<String> optionalStringCollection(
-      @NotNull final Map<String, Object> map,
-      @NotNull final String key
-    ) throws InvalidDescriptionException {
-      return Description.optional(
-        map,
-        key,
-        Collection.class,
-        Collections.emptySet(),
-        collection ->
-          ((Collection<?>) collection).stream()
-            .map(Object::toString)
-            .collect(Collectors.toSet())
-      );
+    private static Version version(@Nullable final String version) {
+      if (version == null) {
+        return Version.of(1);
+      }
+      try {
+        return Version.of(version);
+      } catch (final ParseException e) {
+        Description.log.error(
+          "Couldn't parse the version %s".formatted(version),
+          e
+        );
+        Description.log.info("Using default version(1.0.0) instead");
+        return Version.of(1);
+      }
     }
 
     /**
@@ -786,6 +1246,9 @@ public interface Plugin {
       map.put("load-before", this.loadBefore);
       map.put("website", this.website);
       map.put("provides", this.provides);
+      map.put("lazy", this.lazy);
+      map.put("activation-events", this.activationEvents);
+      map.put("services", this.services);
       return map;
     }
   }
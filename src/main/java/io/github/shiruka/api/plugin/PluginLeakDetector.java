@@ -0,0 +1,109 @@
+package io.github.shiruka.api.plugin;
+
+import com.google.common.collect.Sets;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents detectors for class loaders of unloaded plugins that are never garbage-collected.
+ */
+final class PluginLeakDetector {
+
+  /**
+   * the queue of the collected class loaders.
+   */
+  private final ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+
+  /**
+   * the tracked class loaders.
+   */
+  private final Collection<Tracked> tracked = Sets.newConcurrentHashSet();
+
+  /**
+   * obtains names of the plugins whose class loaders are still reachable after the grace period.
+   *
+   * @param grace the grace to obtain.
+   *
+   * @return leaked plugin names.
+   */
+  @NotNull
+  Collection<String> leaked(@NotNull final Duration grace) {
+    this.poll();
+    final var deadline = System.nanoTime() - grace.toNanos();
+    return this.tracked.stream()
+      .filter(reference -> reference.trackedAt - deadline <= 0)
+      .map(reference -> reference.name)
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * removes the collected class loaders.
+   */
+  private void poll() {
+    for (
+      var reference = this.queue.poll();
+      reference != null;
+      reference = this.queue.poll()
+    ) {
+      this.tracked.remove(reference);
+      reference.clear();
+    }
+  }
+
+  /**
+   * tracks the class loader of the unloaded plugin.
+   *
+   * @param plugin the plugin to track.
+   */
+  void track(@NotNull final Plugin.Container plugin) {
+    this.poll();
+    this.tracked.add(
+        new Tracked(
+          plugin.classLoader(),
+          this.queue,
+          plugin.description().fullName(),
+          System.nanoTime()
+        )
+      );
+  }
+
+  /**
+   * a class that represents phantom references to the tracked class loaders.
+   */
+  private static final class Tracked extends PhantomReference<ClassLoader> {
+
+    /**
+     * the plugin name.
+     */
+    @NotNull
+    private final String name;
+
+    /**
+     * the tracked at in nanoseconds.
+     */
+    private final long trackedAt;
+
+    /**
+     * ctor.
+     *
+     * @param referent the referent.
+     * @param queue the queue.
+     * @param name the name.
+     * @param trackedAt the tracked at.
+     */
+    private Tracked(
+      @NotNull final ClassLoader referent,
+      @NotNull final ReferenceQueue<ClassLoader> queue,
+      @NotNull final String name,
+      final long trackedAt
+    ) {
+      super(referent, queue);
+      this.name = name;
+      this.trackedAt = trackedAt;
+    }
+  }
+}
@@ -2,9 +2,11 @@ package io.github.shiruka.api.plugin;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
+import com.google.common.graph.Graph;
 import com.google.common.graph.GraphBuilder;
 import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableGraph;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.github.shiruka.api.Shiruka;
 import io.github.shiruka.api.event.server.ServerExceptionEvent;
 import io.github.shiruka.api.exception.InvalidDescriptionException;
@@ -14,18 +16,24 @@ import io.github.shiruka.api.exception.UnknownDependencyException;
 import io.github.shiruka.api.scheduler.Scheduler;
 import java.io.File;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -42,6 +50,16 @@ import org.jetbrains.annotations.Nullable;
 @RequiredArgsConstructor
 public final class PluginManager implements Plugin.Manager {
 
+  /**
+   * the dependency reachability lock, which guards the rebuilds of {@link #dependencyReachability}.
+   */
+  private final Object dependencyReachabilityLock = new Object();
+
+  /**
+   * the leak detector.
+   */
+  private final PluginLeakDetector leakDetector = new PluginLeakDetector();
+
   /**
    * the plugin loaders.
    */
@@ -64,6 +82,13 @@ public final class PluginManager implements Plugin.Manager {
   @Getter
   private final Path pluginsDirectory;
 
+  /**
+   * the timings.
+   */
+  @NotNull
+  @Getter
+  private final PluginTimings timings = new PluginTimings();
+
   /**
    * the dependency graph.
    */
@@ -72,6 +97,12 @@ public final class PluginManager implements Plugin.Manager {
     .directed()
     .build();
 
+  /**
+   * the dependency reachability, {@code null} if the dependency graph changed after the last computation.
+   */
+  @Nullable
+  private volatile DependencyReachability dependencyReachability;
+
   /**
    * handles plugin exceptions.
    *
@@ -91,6 +122,54 @@ public final class PluginManager implements Plugin.Manager {
       .postEvent();
   }
 
+  /**
+   * runs the action for the plugins of each layer concurrently, a layer starts after the previous layer completed.
+   *
+   * @param layers the layers to run.
+   * @param name the name of the worker threads.
+   * @param action the action to run.
+   */
+  private static void runLayers(
+    @NotNull final List<List<Plugin.Container>> layers,
+    @NotNull final String name,
+    @NotNull final Consumer<Plugin.Container> action
+  ) {
+    final var threads = layers
+      .stream()
+      .mapToInt(List::size)
+      .max()
+      .orElse(0);
+    if (threads == 0) {
+      return;
+    }
+    final var executor = Executors.newFixedThreadPool(
+      Math.min(threads, Runtime.getRuntime().availableProcessors()),
+      new ThreadFactoryBuilder()
+        .setNameFormat("Shiruka Plugin " + name + " #%d")
+        .build()
+    );
+    try {
+      for (final var layer : layers) {
+        CompletableFuture
+          .allOf(
+            layer
+              .stream()
+              .map(plugin ->
+                CompletableFuture.runAsync(
+                  () -> action.accept(plugin),
+                  executor
+                )
+              )
+              .toArray(CompletableFuture[]::new)
+          )
+          .exceptionally(throwable -> null)
+          .join();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Override
   public void clearPlugins() {
     synchronized (this) {
@@ -98,64 +177,98 @@ public final class PluginManager implements Plugin.Manager {
       this.plugins.clear();
       this.pluginsByName.clear();
       this.dependencyGraph = GraphBuilder.directed().build();
+      this.invalidateDependencyReachability();
       this.pluginLoaders.clear();
     }
   }
 
   @Override
-  public synchronized void disablePlugin(
+  public void disablePlugin(
     @NotNull final Plugin.Container plugin,
     final boolean closeClassLoaders
   ) {
-    if (!plugin.enabled()) {
-      return;
-    }
-    final var fullName = plugin.description().fullName();
-    try {
-      plugin.loader().disablePlugin(plugin, closeClassLoaders);
-    } catch (final Throwable e) {
-      PluginManager.handlePluginException(
-        "Error occurred (in the plugin loader) while disabling %s (Is it up to date?)".formatted(
-            fullName
-          ),
-        e,
-        plugin
-      );
-    }
-    try {
-      Scheduler.sync().cancelTasks(plugin);
-      Scheduler.async().cancelTasks(plugin);
-    } catch (final Throwable e) {
-      PluginManager.handlePluginException(
-        "Error occurred (in the plugin loader) while cancelling tasks for %s (Is it up to date?)".formatted(
-            fullName
-          ),
-        e,
-        plugin
-      );
+    synchronized (plugin) {
+      if (!plugin.enabled()) {
+        return;
+      }
+      final var fullName = plugin.description().fullName();
+      try {
+        plugin.loader().disablePlugin(plugin, closeClassLoaders);
+      } catch (final Throwable e) {
+        PluginManager.handlePluginException(
+          "Error occurred (in the plugin loader) while disabling %s (Is it up to date?)".formatted(
+              fullName
+            ),
+          e,
+          plugin
+        );
+      }
+      try {
+        Scheduler.sync().cancelTasks(plugin);
+        Scheduler.async().cancelTasks(plugin);
+      } catch (final Throwable e) {
+        PluginManager.handlePluginException(
+          "Error occurred (in the plugin loader) while cancelling tasks for %s (Is it up to date?)".formatted(
+              fullName
+            ),
+          e,
+          plugin
+        );
+      }
     }
   }
 
   @Override
-  public synchronized void enablePlugin(
-    @NotNull final Plugin.Container plugin
+  public void disablePlugins(
+    @NotNull final Collection<Plugin.Container> plugins,
+    final boolean closeClassLoaders
   ) {
-    if (plugin.enabled()) {
-      return;
-    }
-    try {
-      plugin.loader().enablePlugin(plugin);
-    } catch (final Throwable e) {
-      PluginManager.handlePluginException(
-        "Error occurred (in the plugin loader) while enabling %s (Is it up to date?)".formatted(
-            plugin.description().fullName()
-          ),
-        e,
-        plugin
-      );
+    final var layers = this.dependencyLayers(plugins);
+    Collections.reverse(layers);
+    PluginManager.runLayers(
+      layers,
+      "Disabler",
+      plugin -> this.disablePlugin(plugin, closeClassLoaders)
+    );
+  }
+
+  @Override
+  public void enablePlugin(@NotNull final Plugin.Container plugin) {
+    synchronized (plugin) {
+      if (plugin.enabled()) {
+        return;
+      }
+      try (
+        final var ignored =
+          this.timings.start(
+              plugin.pluginFile().getName(),
+              PluginTimings.Phase.ENABLE
+            )
+      ) {
+        plugin.loader().enablePlugin(plugin);
+      } catch (final Throwable e) {
+        PluginManager.handlePluginException(
+          "Error occurred (in the plugin loader) while enabling %s (Is it up to date?)".formatted(
+              plugin.description().fullName()
+            ),
+          e,
+          plugin
+        );
+      }
     }
   }
 
+  @Override
+  public void enablePlugins(
+    @NotNull final Collection<Plugin.Container> plugins
+  ) {
+    PluginManager.runLayers(
+      this.dependencyLayers(plugins),
+      "Enabler",
+      this::enablePlugin
+    );
+  }
+
   @Override
   public synchronized boolean isPluginEnabled(
     @NotNull final Plugin.Container plugin
@@ -169,18 +282,23 @@ public final class PluginManager implements Plugin.Manager {
     @NotNull final Plugin.Container depend
   ) {
     final var name = plugin.description().name();
-    if (!this.dependencyGraph.nodes().contains(name)) {
-      return false;
-    }
-    final var reachableNodes = Graphs.reachableNodes(
-      this.dependencyGraph,
-      name
-    );
+    final var reachability = this.dependencyReachability();
     final var dependDescription = depend.description();
-    return (
-      reachableNodes.contains(dependDescription.name()) ||
-      dependDescription.provides().stream().anyMatch(reachableNodes::contains)
-    );
+    if (reachability.reachable(name, dependDescription.name())) {
+      return true;
+    }
+    for (final var provided : dependDescription.provides()) {
+      if (reachability.reachable(name, provided)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @NotNull
+  @Override
+  public Collection<String> leakedPlugins(@NotNull final Duration grace) {
+    return this.leakDetector.leaked(grace);
   }
 
   @Nullable
@@ -190,7 +308,12 @@ public final class PluginManager implements Plugin.Manager {
     Plugin.Container result = null;
     for (final var filter : this.pluginLoaders.keySet()) {
       if (filter.matcher(file.getName()).find()) {
-        result = this.pluginLoaders.get(filter).loadPlugin(file);
+        try (
+          final var ignored =
+            this.timings.start(file.getName(), PluginTimings.Phase.LOAD_PLUGIN)
+        ) {
+          result = this.pluginLoaders.get(filter).loadPlugin(file);
+        }
       }
     }
     if (result != null) {
@@ -213,6 +336,23 @@ public final class PluginManager implements Plugin.Manager {
   @Override
   @NotNull
   public Collection<Plugin.Container> loadPlugins(@NotNull final File folder) {
+    try (
+      final var ignored =
+        this.timings.start(null, PluginTimings.Phase.LOAD_PLUGINS)
+    ) {
+      return this.loadPlugins0(folder);
+    }
+  }
+
+  /**
+   * loads the plugin in the folder.
+   *
+   * @param folder the folder to load.
+   *
+   * @return all loaded plugins in the folder.
+   */
+  @NotNull
+  private Collection<Plugin.Container> loadPlugins0(@NotNull final File folder) {
     Preconditions.checkState(
       folder.isDirectory(),
       "The folder must be a directory!"
@@ -243,7 +383,15 @@ public final class PluginManager implements Plugin.Manager {
       final var filePath = file.getPath();
       final var parentFilePath = file.getParentFile().getPath();
       try {
-        description = loader.loadDescription(file);
+        try (
+          final var ignored =
+            this.timings.start(
+                file.getName(),
+                PluginTimings.Phase.LOAD_DESCRIPTION
+              )
+        ) {
+          description = loader.loadDescription(file);
+        }
         final var name = description.name();
         if (
           name.equalsIgnoreCase("shiruka") ||
@@ -353,6 +501,7 @@ public final class PluginManager implements Plugin.Manager {
         }
       }
     }
+    this.invalidateDependencyReachability();
     while (!plugins.isEmpty()) {
       var missingDependency = true;
       var iterator = plugins.entrySet().iterator();
@@ -525,6 +674,157 @@ public final class PluginManager implements Plugin.Manager {
     return Collections.unmodifiableSet(this.plugins);
   }
 
+  /**
+   * computes the dependency layer of the plugin.
+   *
+   * @param plugin the plugin to compute.
+   * @param byName the plugins to compute by their names and provided names.
+   * @param layers the computed layers.
+   * @param visiting the plugins that are being computed, to break dependency cycles.
+   *
+   * @return dependency layer of the plugin.
+   */
+  private int dependencyLayer(
+    @NotNull final Plugin.Container plugin,
+    @NotNull final Map<String, Plugin.Container> byName,
+    @NotNull final Map<Plugin.Container, Integer> layers,
+    @NotNull final Set<Plugin.Container> visiting
+  ) {
+    final var computed = layers.get(plugin);
+    if (computed != null) {
+      return computed;
+    }
+    if (!visiting.add(plugin)) {
+      return 0;
+    }
+    final var name = plugin.description().name();
+    var layer = 0;
+    if (this.dependencyGraph.nodes().contains(name)) {
+      for (final var successor : this.dependencyGraph.successors(name)) {
+        final var dependency = byName.get(successor);
+        if (dependency != null && dependency != plugin) {
+          layer =
+            Math.max(
+              layer,
+              this.dependencyLayer(dependency, byName, layers, visiting) + 1
+            );
+        }
+      }
+    }
+    visiting.remove(plugin);
+    layers.put(plugin, layer);
+    return layer;
+  }
+
+  /**
+   * groups the plugins by their dependency layers, a plugin's dependencies are always in the previous layers.
+   *
+   * @param plugins the plugins to group.
+   *
+   * @return dependency layers.
+   */
+  @NotNull
+  private List<List<Plugin.Container>> dependencyLayers(
+    @NotNull final Collection<Plugin.Container> plugins
+  ) {
+    final var byName = new HashMap<String, Plugin.Container>();
+    for (final var plugin : plugins) {
+      byName.put(plugin.description().name(), plugin);
+    }
+    for (final var plugin : plugins) {
+      for (final var provided : plugin.description().provides()) {
+        byName.putIfAbsent(provided, plugin);
+      }
+    }
+    final var layers = new HashMap<Plugin.Container, Integer>();
+    final var result = new ArrayList<List<Plugin.Container>>();
+    for (final var plugin : plugins) {
+      final var layer = this.dependencyLayer(
+          plugin,
+          byName,
+          layers,
+          new HashSet<>()
+        );
+      while (result.size() <= layer) {
+        result.add(new ArrayList<>());
+      }
+      result.get(layer).add(plugin);
+    }
+    return result;
+  }
+
+  /**
+   * obtains the dependency reachability, computes it if the dependency graph changed.
+   * <p>
+   * the published snapshot is read without locking, the lock is taken only to rebuild it.
+   *
+   * @return dependency reachability.
+   */
+  @NotNull
+  private DependencyReachability dependencyReachability() {
+    final var reachability = this.dependencyReachability;
+    if (reachability != null) {
+      return reachability;
+    }
+    synchronized (this.dependencyReachabilityLock) {
+      var rebuilt = this.dependencyReachability;
+      if (rebuilt == null) {
+        rebuilt = DependencyReachability.of(this.dependencyGraph);
+        this.dependencyReachability = rebuilt;
+      }
+      return rebuilt;
+    }
+  }
+
+  /**
+   * invalidates the dependency reachability to compute it again on the next check.
+   */
+  private void invalidateDependencyReachability() {
+    synchronized (this.dependencyReachabilityLock) {
+      this.dependencyReachability = null;
+    }
+  }
+
+  @Nullable
+  @Override
+  public synchronized Plugin.Container reloadPlugin(
+    @NotNull final Plugin.Container plugin
+  ) throws InvalidPluginException, UnknownDependencyException {
+    final var dependents =
+      this.plugins.stream()
+        .filter(other ->
+          other != plugin && this.isTransitiveDepend(other, plugin)
+        )
+        .map(other -> other.description().name())
+        .toList();
+    Preconditions.checkState(
+      dependents.isEmpty(),
+      "Cannot reload %s, %s depend on it!",
+      plugin.description().name(),
+      dependents
+    );
+    final var enabled = plugin.enabled();
+    final var reloaded = this.loadPlugin(plugin.pluginFile());
+    if (reloaded == null) {
+      return null;
+    }
+    this.disablePlugin(plugin, true);
+    plugin.loader().unloadPlugin(plugin);
+    this.plugins.remove(plugin);
+    this.pluginsByName.values().removeIf(container -> container == plugin);
+    for (final var provided : reloaded.description().provides()) {
+      this.pluginsByName.putIfAbsent(
+          provided.toLowerCase(Locale.ROOT),
+          reloaded
+        );
+    }
+    this.leakDetector.track(plugin);
+    if (enabled) {
+      this.enablePlugin(reloaded);
+    }
+    return reloaded;
+  }
+
   @Override
   public void registerLoader(
     @NotNull final Pattern pattern,
@@ -532,4 +832,62 @@ public final class PluginManager implements Plugin.Manager {
   ) {
     this.pluginLoaders.put(pattern, loader);
   }
+
+  /**
+   * a record class that represents precomputed transitive closure of the dependency graph.
+   *
+   * @param indices the node indices by node.
+   * @param reachable the reachable node indices by node index.
+   */
+  private record DependencyReachability(
+    @NotNull Map<String, Integer> indices,
+    @NotNull BitSet[] reachable
+  ) {
+    /**
+     * computes the reachability of the graph.
+     *
+     * @param graph the graph to compute.
+     *
+     * @return computed reachability.
+     */
+    @NotNull
+    private static DependencyReachability of(
+      @NotNull final Graph<String> graph
+    ) {
+      final var nodes = new ArrayList<>(graph.nodes());
+      final var indices = new HashMap<String, Integer>(nodes.size());
+      for (var index = 0; index < nodes.size(); index++) {
+        indices.put(nodes.get(index), index);
+      }
+      final var reachable = new BitSet[nodes.size()];
+      for (var index = 0; index < nodes.size(); index++) {
+        final var bits = new BitSet(nodes.size());
+        for (final var node : Graphs.reachableNodes(graph, nodes.get(index))) {
+          bits.set(indices.get(node));
+        }
+        reachable[index] = bits;
+      }
+      return new DependencyReachability(indices, reachable);
+    }
+
+    /**
+     * checks if the target node is reachable from the source node.
+     *
+     * @param from the from to check.
+     * @param to the to to check.
+     *
+     * @return {@code true} if the target node is reachable.
+     */
+    private boolean reachable(
+      @NotNull final String from,
+      @NotNull final String to
+    ) {
+      final var fromIndex = this.indices.get(from);
+      if (fromIndex == null) {
+        return false;
+      }
+      final var toIndex = this.indices.get(to);
+      return toIndex != null && this.reachable[fromIndex].get(toIndex);
+    }
+  }
 }
@@ -0,0 +1,423 @@
+package io.github.shiruka.api.plugin;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import org.apache.commons.lang3.function.FailableRunnable;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents resource accounting of a plugin.
+ * <p>
+ * the thread cpu time and the allocated bytes are recorded for the plugin's event listeners, scheduler tasks and
+ * {@link Plugin#onEnable()} into one second buckets of a rolling window. the accounting is exclusive, when a plugin's
+ * code calls into another plugin's code on the same thread, the nested usage is recorded only for the nested plugin.
+ * <p>
+ * the accounting is disabled by default, see {@link #enabled(boolean)}. when it is disabled, the plugin's code runs
+ * without measuring and the callers on the hot paths check {@link #enabled()} to skip creating the measured runnable.
+ */
+public final class PluginResources {
+
+  /**
+   * the bucket count.
+   */
+  private static final int BUCKETS = 60;
+
+  /**
+   * the bucket length in nanoseconds.
+   */
+  private static final long BUCKET_NANOS = Duration.ofSeconds(1L).toNanos();
+
+  /**
+   * the current frame of the thread.
+   */
+  private static final ThreadLocal<Frame> FRAME = new ThreadLocal<>();
+
+  /**
+   * the resources of the plugin class loaders.
+   */
+  private static final Map<ClassLoader, PluginResources> LOADERS = Collections.synchronizedMap(
+    new WeakHashMap<>()
+  );
+
+  /**
+   * the resources of the classes.
+   */
+  private static final ClassValue<Optional<PluginResources>> OWNERS = new ClassValue<>() {
+    @Override
+    protected Optional<PluginResources> computeValue(final Class<?> type) {
+      return Optional.ofNullable(
+        PluginResources.LOADERS.get(type.getClassLoader())
+      );
+    }
+  };
+
+  /**
+   * the thread bean.
+   */
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+  /**
+   * whether the accounting is enabled.
+   */
+  private static volatile boolean enabled;
+
+  /**
+   * the buckets.
+   */
+  private final Bucket[] buckets = new Bucket[PluginResources.BUCKETS];
+
+  /**
+   * ctor.
+   *
+   * @param classLoader the class loader of the plugin.
+   */
+  PluginResources(@NotNull final ClassLoader classLoader) {
+    for (var index = 0; index < this.buckets.length; index++) {
+      this.buckets[index] = new Bucket();
+    }
+    PluginResources.LOADERS.put(classLoader, this);
+  }
+
+  /**
+   * checks if the accounting is enabled.
+   *
+   * @return {@code true} if the accounting is enabled.
+   */
+  public static boolean enabled() {
+    return PluginResources.enabled;
+  }
+
+  /**
+   * enables or disables the accounting.
+   *
+   * @param enabled the enabled to set.
+   */
+  public static void enabled(final boolean enabled) {
+    PluginResources.enabled = enabled;
+  }
+
+  /**
+   * measures the owner's code, the usage is recorded for the plugin that defines the owner's class.
+   *
+   * @param owner the owner to measure.
+   * @param source the source to measure.
+   * @param runnable the runnable to measure.
+   * @param <E> type of the exception.
+   *
+   * @throws E if the runnable throws.
+   */
+  public static <E extends Throwable> void measure(
+    @NotNull final Object owner,
+    @NotNull final Source source,
+    @NotNull final FailableRunnable<E> runnable
+  ) throws E {
+    if (!PluginResources.enabled) {
+      runnable.run();
+      return;
+    }
+    final var resources = PluginResources.OWNERS.get(owner.getClass());
+    if (resources.isPresent()) {
+      resources.get().measure(source, runnable);
+    } else {
+      runnable.run();
+    }
+  }
+
+  /**
+   * obtains the cpu time of the current thread.
+   *
+   * @return cpu time, {@code -1} if the JVM does not support it.
+   */
+  private static long cpuTime() {
+    if (!PluginResources.THREADS.isCurrentThreadCpuTimeSupported()) {
+      return -1L;
+    }
+    return PluginResources.THREADS.getCurrentThreadCpuTime();
+  }
+
+  /**
+   * calculates the delta of the measured values.
+   *
+   * @param start the start to calculate.
+   * @param end the end to calculate.
+   *
+   * @return delta, {@code 0} if the JVM does not support the measurement.
+   */
+  private static long delta(final long start, final long end) {
+    if (start == -1L || end == -1L) {
+      return 0L;
+    }
+    return Math.max(0L, end - start);
+  }
+
+  /**
+   * measures the plugin's code.
+   *
+   * @param source the source to measure.
+   * @param runnable the runnable to measure.
+   * @param <E> type of the exception.
+   *
+   * @throws E if the runnable throws.
+   */
+  public <E extends Throwable> void measure(
+    @NotNull final Source source,
+    @NotNull final FailableRunnable<E> runnable
+  ) throws E {
+    if (!PluginResources.enabled) {
+      runnable.run();
+      return;
+    }
+    final var parent = PluginResources.FRAME.get();
+    final var frame = new Frame();
+    PluginResources.FRAME.set(frame);
+    final var cpuTime = PluginResources.cpuTime();
+    final var allocatedBytes = PluginTimings.allocatedBytes();
+    try {
+      runnable.run();
+    } finally {
+      PluginResources.FRAME.set(parent);
+      final var cpu = PluginResources.delta(cpuTime, PluginResources.cpuTime());
+      final var allocated = PluginResources.delta(
+        allocatedBytes,
+        PluginTimings.allocatedBytes()
+      );
+      if (parent != null) {
+        parent.childCpuTime += cpu;
+        parent.childAllocatedBytes += allocated;
+      }
+      this.record(
+          source,
+          Math.max(0L, cpu - frame.childCpuTime),
+          Math.max(0L, allocated - frame.childAllocatedBytes)
+        );
+    }
+  }
+
+  /**
+   * takes a snapshot of the rolling window.
+   *
+   * @return snapshot.
+   */
+  @NotNull
+  public Snapshot snapshot() {
+    final var now = System.nanoTime() / PluginResources.BUCKET_NANOS;
+    final var cpuTimes = new long[Source.VALUES.length];
+    final var maxCpuTimes = new long[Source.VALUES.length];
+    final var allocatedBytes = new long[Source.VALUES.length];
+    final var invocations = new long[Source.VALUES.length];
+    final var threads = new LongOpenHashSet();
+    for (final var bucket : this.buckets) {
+      synchronized (bucket) {
+        if (bucket.second <= now - PluginResources.BUCKETS) {
+          continue;
+        }
+        for (var index = 0; index < Source.VALUES.length; index++) {
+          cpuTimes[index] += bucket.cpuTimes[index];
+          maxCpuTimes[index] =
+            Math.max(maxCpuTimes[index], bucket.maxCpuTimes[index]);
+          allocatedBytes[index] += bucket.allocatedBytes[index];
+          invocations[index] += bucket.invocations[index];
+        }
+        threads.addAll(bucket.threads);
+      }
+    }
+    final var usages = new EnumMap<Source, Usage>(Source.class);
+    for (final var source : Source.VALUES) {
+      final var index = source.ordinal();
+      usages.put(
+        source,
+        new Usage(
+          Duration.ofNanos(cpuTimes[index]),
+          Duration.ofNanos(maxCpuTimes[index]),
+          allocatedBytes[index],
+          invocations[index]
+        )
+      );
+    }
+    return new Snapshot(
+      Duration.ofNanos(PluginResources.BUCKETS * PluginResources.BUCKET_NANOS),
+      Collections.unmodifiableMap(usages),
+      threads.size()
+    );
+  }
+
+  /**
+   * records the usage into the current bucket.
+   *
+   * @param source the source to record.
+   * @param cpuTime the cpu time to record.
+   * @param allocatedBytes the allocated bytes to record.
+   */
+  private void record(
+    @NotNull final Source source,
+    final long cpuTime,
+    final long allocatedBytes
+  ) {
+    final var second = System.nanoTime() / PluginResources.BUCKET_NANOS;
+    final var bucket =
+      this.buckets[Math.floorMod(second, PluginResources.BUCKETS)];
+    final var index = source.ordinal();
+    synchronized (bucket) {
+      if (bucket.second != second) {
+        bucket.reset(second);
+      }
+      bucket.cpuTimes[index] += cpuTime;
+      bucket.maxCpuTimes[index] = Math.max(bucket.maxCpuTimes[index], cpuTime);
+      bucket.allocatedBytes[index] += allocatedBytes;
+      bucket.invocations[index]++;
+      bucket.threads.add(Thread.currentThread().getId());
+    }
+  }
+
+  /**
+   * an enum class that contains sources of the plugin's usage.
+   */
+  public enum Source {
+    /**
+     * the plugin's event listeners.
+     */
+    LISTENER,
+    /**
+     * the plugin's scheduler tasks.
+     */
+    TASK,
+    /**
+     * the plugin's {@link Plugin#onEnable()}.
+     */
+    ENABLE;
+
+    /**
+     * the values.
+     */
+    private static final Source[] VALUES = Source.values();
+  }
+
+  /**
+   * a record class that represents snapshots of the rolling window.
+   *
+   * @param window the window.
+   * @param usages the usages by their source.
+   * @param threads the number of distinct threads that ran the plugin's code.
+   */
+  public record Snapshot(
+    @NotNull Duration window,
+    @NotNull Map<Source, Usage> usages,
+    int threads
+  ) {
+    /**
+     * obtains the total allocated bytes.
+     *
+     * @return total allocated bytes.
+     */
+    public long allocatedBytes() {
+      return this.usages.values()
+        .stream()
+        .mapToLong(Usage::allocatedBytes)
+        .sum();
+    }
+
+    /**
+     * obtains the total cpu time.
+     *
+     * @return total cpu time.
+     */
+    @NotNull
+    public Duration cpuTime() {
+      return this.usages.values()
+        .stream()
+        .map(Usage::cpuTime)
+        .reduce(Duration.ZERO, Duration::plus);
+    }
+  }
+
+  /**
+   * a record class that represents usages of a source.
+   *
+   * @param cpuTime the cpu time.
+   * @param maxCpuTime the cpu time of the longest invocation.
+   * @param allocatedBytes the allocated bytes.
+   * @param invocations the invocations.
+   */
+  public record Usage(
+    @NotNull Duration cpuTime,
+    @NotNull Duration maxCpuTime,
+    long allocatedBytes,
+    long invocations
+  ) {}
+
+  /**
+   * a class that represents one second buckets of the rolling window.
+   */
+  private static final class Bucket {
+
+    /**
+     * the allocated bytes by source.
+     */
+    private final long[] allocatedBytes = new long[Source.VALUES.length];
+
+    /**
+     * the cpu times by source.
+     */
+    private final long[] cpuTimes = new long[Source.VALUES.length];
+
+    /**
+     * the invocations by source.
+     */
+    private final long[] invocations = new long[Source.VALUES.length];
+
+    /**
+     * the max cpu times by source.
+     */
+    private final long[] maxCpuTimes = new long[Source.VALUES.length];
+
+    /**
+     * the threads.
+     */
+    private final LongSet threads = new LongOpenHashSet();
+
+    /**
+     * the second.
+     */
+    private long second = Long.MIN_VALUE;
+
+    /**
+     * resets the bucket for the second.
+     *
+     * @param second the second to reset.
+     */
+    private void reset(final long second) {
+      this.second = second;
+      for (var index = 0; index < Source.VALUES.length; index++) {
+        this.allocatedBytes[index] = 0L;
+        this.cpuTimes[index] = 0L;
+        this.invocations[index] = 0L;
+        this.maxCpuTimes[index] = 0L;
+      }
+      this.threads.clear();
+    }
+  }
+
+  /**
+   * a class that represents measurement frames of the current thread.
+   */
+  private static final class Frame {
+
+    /**
+     * the allocated bytes of the nested frames.
+     */
+    private long childAllocatedBytes;
+
+    /**
+     * the cpu time of the nested frames.
+     */
+    private long childCpuTime;
+  }
+}
@@ -0,0 +1,238 @@
+package io.github.shiruka.api.plugin;
+
+import com.google.common.collect.EvictingQueue;
+import com.sun.management.ThreadMXBean;
+import io.github.shiruka.api.event.plugin.PluginTimingEvent;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents timings of the plugin lifecycle phases.
+ * <p>
+ * loaded class counts are JVM-wide, so they also include classes that other threads load while a phase runs. only the
+ * latest entries are kept, the oldest entry is dropped once the capacity is reached.
+ */
+public final class PluginTimings {
+
+  /**
+   * the class loading bean.
+   */
+  private static final ClassLoadingMXBean CLASS_LOADING = ManagementFactory.getClassLoadingMXBean();
+
+  /**
+   * the thread bean.
+   */
+  @Nullable
+  private static final ThreadMXBean THREADS = PluginTimings.threads();
+
+  /**
+   * the default capacity.
+   */
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  /**
+   * the entries.
+   */
+  private final Queue<Entry> entries;
+
+  /**
+   * ctor.
+   *
+   * @param capacity the capacity of the entries.
+   */
+  public PluginTimings(final int capacity) {
+    this.entries = EvictingQueue.create(capacity);
+  }
+
+  /**
+   * ctor.
+   */
+  public PluginTimings() {
+    this(PluginTimings.DEFAULT_CAPACITY);
+  }
+
+  /**
+   * obtains the allocated bytes of the current thread.
+   *
+   * @return allocated bytes, {@code -1} if the JVM does not support it.
+   */
+  static long allocatedBytes() {
+    final var threads = PluginTimings.THREADS;
+    if (threads == null || !threads.isThreadAllocatedMemoryEnabled()) {
+      return -1L;
+    }
+    return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * obtains the thread bean if it supports measuring allocated bytes.
+   *
+   * @return thread bean.
+   */
+  @Nullable
+  private static ThreadMXBean threads() {
+    if (
+      ManagementFactory.getThreadMXBean() instanceof ThreadMXBean threads &&
+      threads.isThreadAllocatedMemorySupported()
+    ) {
+      return threads;
+    }
+    return null;
+  }
+
+  /**
+   * clears the entries.
+   */
+  public void clear() {
+    synchronized (this.entries) {
+      this.entries.clear();
+    }
+  }
+
+  /**
+   * obtains the latest recorded entries in the completion order.
+   *
+   * @return recorded entries.
+   */
+  @NotNull
+  public List<Entry> report() {
+    synchronized (this.entries) {
+      return List.copyOf(this.entries);
+    }
+  }
+
+  /**
+   * starts timing the phase, the timing is recorded and posted as {@link PluginTimingEvent} when it is closed.
+   *
+   * @param plugin the plugin file name to start, {@code null} if the phase is not specific to a plugin.
+   * @param phase the phase to start.
+   *
+   * @return started timing.
+   */
+  @NotNull
+  public Timing start(
+    @Nullable final String plugin,
+    @NotNull final Phase phase
+  ) {
+    return new Timing(plugin, phase);
+  }
+
+  /**
+   * an enum class that contains plugin lifecycle phases.
+   */
+  public enum Phase {
+    /**
+     * loading all the plugins in the plugins directory.
+     */
+    LOAD_PLUGINS,
+    /**
+     * loading the description of a plugin.
+     */
+    LOAD_DESCRIPTION,
+    /**
+     * loading a plugin, contains the class loader phases.
+     */
+    LOAD_PLUGIN,
+    /**
+     * opening the plugin jar.
+     */
+    OPEN_JAR,
+    /**
+     * loading and initializing the plugin's main class.
+     */
+    INIT_MAIN_CLASS,
+    /**
+     * creating the plugin's injector and instance.
+     */
+    INJECT,
+    /**
+     * enabling a plugin.
+     */
+    ENABLE
+  }
+
+  /**
+   * a record class that represents timing entries.
+   *
+   * @param plugin the plugin file name, {@code null} if the phase is not specific to a plugin.
+   * @param phase the phase.
+   * @param wallTime the wall time.
+   * @param classesLoaded the classes loaded.
+   * @param allocatedBytes the bytes allocated by the timing thread, {@code -1} if the JVM does not support it.
+   */
+  public record Entry(
+    @Nullable String plugin,
+    @NotNull Phase phase,
+    @NotNull Duration wallTime,
+    long classesLoaded,
+    long allocatedBytes
+  ) {}
+
+  /**
+   * a class that represents running timings.
+   */
+  public final class Timing implements AutoCloseable {
+
+    /**
+     * the allocated bytes at the start.
+     */
+    private final long allocatedBytes = PluginTimings.allocatedBytes();
+
+    /**
+     * the loaded classes at the start.
+     */
+    private final long classesLoaded = PluginTimings.CLASS_LOADING.getTotalLoadedClassCount();
+
+    /**
+     * the phase.
+     */
+    @NotNull
+    private final Phase phase;
+
+    /**
+     * the plugin.
+     */
+    @Nullable
+    private final String plugin;
+
+    /**
+     * the start time.
+     */
+    private final long startedAt = System.nanoTime();
+
+    /**
+     * ctor.
+     *
+     * @param plugin the plugin.
+     * @param phase the phase.
+     */
+    private Timing(@Nullable final String plugin, @NotNull final Phase phase) {
+      this.plugin = plugin;
+      this.phase = phase;
+    }
+
+    @Override
+    public void close() {
+      final var allocatedBytes = PluginTimings.allocatedBytes();
+      final var entry = new Entry(
+        this.plugin,
+        this.phase,
+        Duration.ofNanos(System.nanoTime() - this.startedAt),
+        PluginTimings.CLASS_LOADING.getTotalLoadedClassCount() -
+        this.classesLoaded,
+        allocatedBytes == -1L || this.allocatedBytes == -1L
+          ? -1L
+          : allocatedBytes - this.allocatedBytes
+      );
+      synchronized (PluginTimings.this.entries) {
+        PluginTimings.this.entries.add(entry);
+      }
+      new PluginTimingEvent(entry).postEvent();
+    }
+  }
+}
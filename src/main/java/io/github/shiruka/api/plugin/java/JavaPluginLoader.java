@@ -1,6 +1,10 @@
 package io.github.shiruka.api.plugin.java;
 
+import com.google.inject.Guice;
+import com.google.inject.Injector;
 import io.github.shiruka.api.Shiruka;
+import io.github.shiruka.api.event.Event;
+import io.github.shiruka.api.event.EventListener;
 import io.github.shiruka.api.event.plugin.PluginDisableEvent;
 import io.github.shiruka.api.event.plugin.PluginEnableEvent;
 import io.github.shiruka.api.exception.InvalidDescriptionException;
@@ -11,13 +15,17 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.jar.JarFile;
+import net.kyori.event.PostOrders;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -26,6 +34,16 @@ import org.jetbrains.annotations.Nullable;
  */
 public final class JavaPluginLoader implements Plugin.Loader {
 
+  /**
+   * the activation listeners of the lazy plugins.
+   */
+  private final Map<Plugin.Container, Collection<EventListener<?>>> activationListeners = new ConcurrentHashMap<>();
+
+  /**
+   * the activation services of the lazy plugins.
+   */
+  private final Map<Plugin.Container, Collection<Class<?>>> activationServices = new ConcurrentHashMap<>();
+
   /**
    * the class load lock.
    */
@@ -36,11 +54,38 @@ public final class JavaPluginLoader implements Plugin.Loader {
    */
   private final Map<String, Integer> classLoadLockCount = new HashMap<>();
 
+  /**
+   * the class owners by class name.
+   */
+  private final Map<String, PluginClassLoader> classOwners = new ConcurrentHashMap<>();
+
+  /**
+   * the parent injector of the plugin injectors.
+   */
+  @NotNull
+  private final Injector injector;
+
   /**
    * the loaders.
    */
   private final List<PluginClassLoader> loaders = new CopyOnWriteArrayList<>();
 
+  /**
+   * ctor.
+   */
+  public JavaPluginLoader() {
+    this(Guice.createInjector(new JavaPluginServerModule()));
+  }
+
+  /**
+   * ctor.
+   *
+   * @param injector the parent injector of the plugin injectors.
+   */
+  public JavaPluginLoader(@NotNull final Injector injector) {
+    this.injector = injector;
+  }
+
   @Override
   public void disablePlugin(
     @NotNull final Plugin.Container plugin,
@@ -51,6 +96,7 @@ public final class JavaPluginLoader implements Plugin.Loader {
     }
     final var fullName = plugin.description().fullName();
     plugin.logger().info("Disabling {}", fullName);
+    this.unregisterActivation(plugin);
     new PluginDisableEvent(plugin).postEvent();
     try {
       plugin.enabled(false);
@@ -65,7 +111,8 @@ public final class JavaPluginLoader implements Plugin.Loader {
         );
     }
     if (plugin.classLoader() instanceof PluginClassLoader loader) {
-      this.loaders.remove(loader);
+      this.unregister(loader);
+      this.removeLoader(loader);
       try {
         loader.close();
       } catch (final IOException ignored) {}
@@ -92,7 +139,7 @@ public final class JavaPluginLoader implements Plugin.Loader {
     plugin.logger().info(enableMsg);
     final var pluginLoader = (PluginClassLoader) plugin.classLoader();
     if (!this.loaders.contains(pluginLoader)) {
-      this.loaders.add(pluginLoader);
+      this.addLoader(pluginLoader);
       plugin
         .logger()
         .warn(
@@ -114,6 +161,7 @@ public final class JavaPluginLoader implements Plugin.Loader {
       Shiruka.pluginManager().disablePlugin(plugin, true);
       return;
     }
+    this.registerActivation(plugin);
     new PluginEnableEvent(plugin).postEvent();
   }
 
@@ -193,16 +241,212 @@ public final class JavaPluginLoader implements Plugin.Loader {
     } catch (final Throwable ex) {
       throw new InvalidPluginException(ex);
     }
-    this.loaders.add(loader);
+    this.addLoader(loader);
     return loader.pluginContainer();
   }
 
+  @Override
+  public void unloadPlugin(@NotNull final Plugin.Container plugin) {
+    this.unregisterActivation(plugin);
+    if (!(plugin.classLoader() instanceof PluginClassLoader loader)) {
+      return;
+    }
+    this.unregister(loader);
+    this.removeLoader(loader);
+    try {
+      loader.close();
+    } catch (final IOException e) {
+      plugin
+        .logger()
+        .warn(
+          "Error closing the Plugin Class Loader for {}",
+          plugin.description().fullName(),
+          e
+        );
+    }
+  }
+
+  /**
+   * activates the lazy plugin.
+   *
+   * @param plugin the plugin to activate.
+   */
+  private void activate(@NotNull final Plugin.Container plugin) {
+    this.unregisterActivation(plugin);
+    try {
+      plugin.plugin();
+    } catch (final Throwable e) {
+      plugin
+        .logger()
+        .fatal(
+          "Error occurred while activating %s (Is it up to date?)".formatted(
+              plugin.description().fullName()
+            ),
+          e
+        );
+      Shiruka.pluginManager().disablePlugin(plugin, true);
+    }
+  }
+
+  /**
+   * registers listeners and provider factories that activate the lazy plugin when one of its activation events is
+   * posted or one of its services is requested.
+   * <p>
+   * listeners that the plugin registers while activating do not receive the activating event itself.
+   *
+   * @param plugin the plugin to register.
+   */
+  private void registerActivation(@NotNull final Plugin.Container plugin) {
+    final var description = plugin.description();
+    if (!description.lazy() || plugin.activated()) {
+      return;
+    }
+    final var provider = Shiruka.provider();
+    final var services = new ArrayList<Class<?>>();
+    for (final var serviceClassName : description.services()) {
+      final Class<?> serviceClass;
+      try {
+        serviceClass =
+          Class.forName(serviceClassName, false, plugin.classLoader());
+      } catch (final ClassNotFoundException e) {
+        plugin
+          .logger()
+          .warn(
+            "Service {} of {} not found",
+            serviceClassName,
+            description.fullName()
+          );
+        continue;
+      }
+      provider.registerFactory(
+        serviceClass,
+        () -> {
+          this.activate(plugin);
+          return null;
+        }
+      );
+      services.add(serviceClass);
+    }
+    this.activationServices.put(plugin, services);
+    final var eventManager = Shiruka.eventManager();
+    final var listeners = new ArrayList<EventListener<?>>();
+    for (final var eventClassName : description.activationEvents()) {
+      final Class<? extends Event> eventClass;
+      try {
+        eventClass =
+          Class
+            .forName(eventClassName, false, this.getClass().getClassLoader())
+            .asSubclass(Event.class);
+      } catch (final ClassNotFoundException | ClassCastException e) {
+        plugin
+          .logger()
+          .warn(
+            "Activation event {} of {} is not an event class",
+            eventClassName,
+            description.fullName()
+          );
+        continue;
+      }
+      listeners.add(
+        eventManager.register(
+          eventClass,
+          PostOrders.FIRST,
+          event -> this.activate(plugin)
+        )
+      );
+    }
+    this.activationListeners.put(plugin, listeners);
+  }
+
+  /**
+   * unregisters the event listeners, the provider implementations and the provider factories whose classes are loaded
+   * by the loader, so they do not keep the loader alive.
+   *
+   * @param loader the loader to unregister.
+   */
+  private void unregister(@NotNull final PluginClassLoader loader) {
+    Shiruka
+      .eventManager()
+      .unregisterIf(subscriber ->
+        subscriber instanceof EventListener<?> listener &&
+        listener.run().getClass().getClassLoader() == loader
+      );
+    Shiruka
+      .provider()
+      .unregisterIf(object -> object.getClass().getClassLoader() == loader);
+  }
+
+  /**
+   * unregisters the activation listeners and the provider factories of the plugin.
+   *
+   * @param plugin the plugin to unregister.
+   */
+  private void unregisterActivation(@NotNull final Plugin.Container plugin) {
+    final var services = this.activationServices.remove(plugin);
+    if (services != null) {
+      final var provider = Shiruka.provider();
+      services.forEach(provider::unregisterFactory);
+    }
+    final var listeners = this.activationListeners.remove(plugin);
+    if (listeners != null) {
+      final var eventManager = Shiruka.eventManager();
+      listeners.forEach(eventManager::unregister);
+    }
+  }
+
+  /**
+   * adds the loader and indexes its classes.
+   *
+   * @param loader the loader to add.
+   */
+  private void addLoader(@NotNull final PluginClassLoader loader) {
+    this.loaders.add(loader);
+    for (final var className : loader.classNames()) {
+      this.classOwners.putIfAbsent(className, loader);
+    }
+    this.invalidateMissingClasses();
+  }
+
+  /**
+   * clears the missing class caches of the loaders, since the classes they could not find may be found now.
+   */
+  void invalidateMissingClasses() {
+    this.loaders.forEach(PluginClassLoader::invalidateMissingClasses);
+  }
+
+  /**
+   * removes the loader and its indexed classes.
+   *
+   * @param loader the loader to remove.
+   */
+  private void removeLoader(@NotNull final PluginClassLoader loader) {
+    this.loaders.remove(loader);
+    for (final var className : loader.classNames()) {
+      this.classOwners.remove(className, loader);
+    }
+    for (final var other : this.loaders) {
+      for (final var className : other.classNames()) {
+        this.classOwners.putIfAbsent(className, other);
+      }
+      other.invalidateMissingClasses();
+    }
+  }
+
+  /**
+   * obtains the parent injector of the plugin injectors.
+   *
+   * @return parent injector.
+   */
+  @NotNull
+  Injector injector() {
+    return this.injector;
+  }
+
   /**
    * gets the class by name.
    *
    * @param name the name to get.
    * @param resolve the resolve to get.
-   * @param container the container to get.
    * @param requester the requester to get.
    *
    * @return class by name.
@@ -211,7 +455,6 @@ public final class JavaPluginLoader implements Plugin.Loader {
   Class<?> getClassByName(
     @NotNull final String name,
     final boolean resolve,
-    @NotNull final Plugin.Container container,
     @NotNull final PluginClassLoader requester
   ) {
     final ReentrantReadWriteLock lock;
@@ -228,27 +471,22 @@ public final class JavaPluginLoader implements Plugin.Loader {
     }
     lock.writeLock().lock();
     try {
-      final var pluginManager = Shiruka.pluginManager();
-      try {
-        return requester.loadClass0(
-          name,
-          false,
-          pluginManager.isTransitiveDepend(
-            container,
-            requester.pluginContainer()
-          )
-        );
-      } catch (final ClassNotFoundException ignored) {}
+      final var owner = this.classOwners.get(name);
+      if (owner == requester) {
+        return null;
+      }
+      if (owner != null) {
+        try {
+          return owner.loadClass0(name, resolve, false);
+        } catch (final ClassNotFoundException ignored) {}
+        return null;
+      }
       for (final var loader : this.loaders) {
+        if (loader == requester || !loader.extraUrls()) {
+          continue;
+        }
         try {
-          return loader.loadClass0(
-            name,
-            resolve,
-            pluginManager.isTransitiveDepend(
-              container,
-              loader.pluginContainer()
-            )
-          );
+          return loader.loadClass0(name, resolve, false);
         } catch (final ClassNotFoundException ignored) {}
       }
     } finally {
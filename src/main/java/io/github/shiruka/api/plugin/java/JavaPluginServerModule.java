@@ -0,0 +1,29 @@
+package io.github.shiruka.api.plugin.java;
+
+import com.google.inject.Binder;
+import com.google.inject.Module;
+import io.github.shiruka.api.Provider;
+import io.github.shiruka.api.Server;
+import io.github.shiruka.api.Shiruka;
+import io.github.shiruka.api.event.EventManager;
+import io.github.shiruka.api.plugin.Plugin;
+import io.github.shiruka.api.scheduler.Scheduler;
+
+/**
+ * a class that represents the module of the parent injector which is shared by all java plugins.
+ * <p>
+ * the bindings are resolved from {@link Shiruka} when they are injected, so the module can be installed before the
+ * server is set.
+ */
+public final class JavaPluginServerModule implements Module {
+
+  @Override
+  public void configure(final Binder binder) {
+    binder.bind(Server.class).toProvider(Shiruka::server);
+    binder.bind(Provider.class).toProvider(Shiruka::provider);
+    binder.bind(EventManager.class).toProvider(Shiruka::eventManager);
+    binder.bind(Plugin.Manager.class).toProvider(Shiruka::pluginManager);
+    binder.bind(Scheduler.Sync.class).toProvider(Shiruka::syncScheduler);
+    binder.bind(Scheduler.Async.class).toProvider(Shiruka::asyncScheduler);
+  }
+}
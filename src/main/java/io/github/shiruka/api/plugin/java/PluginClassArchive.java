@@ -0,0 +1,182 @@
+package io.github.shiruka.api.plugin.java;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Properties;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import lombok.extern.log4j.Log4j2;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents dynamic class data sharing archives for plugin classes.
+ * <p>
+ * dumps a dynamic CDS archive of the running JVM, which contains the classes that are defined by the
+ * {@link PluginClassLoader}s at the time of the dump and requires the JVM to be started with
+ * {@code -XX:+RecordDynamicDumpInfo}. the next start should use {@link #jvmArguments()} only if
+ * {@link #usable(Collection)} returns {@code true}, otherwise the archive describes different plugin jars and the JVM
+ * would re-parse them anyway.
+ */
+@Log4j2
+@Accessors(fluent = true)
+public final class PluginClassArchive {
+
+  /**
+   * the archive file name.
+   */
+  private static final String ARCHIVE_FILE = "plugins.jsa";
+
+  /**
+   * the hashes file name.
+   */
+  private static final String HASHES_FILE = "plugins.sha256";
+
+  /**
+   * the archive directory.
+   */
+  @Getter
+  @NotNull
+  private final Path directory;
+
+  /**
+   * ctor.
+   *
+   * @param directory the directory.
+   */
+  public PluginClassArchive(@NotNull final Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * hashes the plugin file.
+   *
+   * @param file the file to hash.
+   *
+   * @return sha-256 hash of the file.
+   *
+   * @throws IOException if an I/O error has occurred.
+   */
+  @NotNull
+  private static String hash(@NotNull final File file) throws IOException {
+    return MoreFiles
+      .asByteSource(file.toPath())
+      .hash(Hashing.sha256())
+      .toString();
+  }
+
+  /**
+   * hashes the plugin files.
+   *
+   * @param pluginFiles the plugin files to hash.
+   *
+   * @return hashes of the plugin files by absolute path.
+   *
+   * @throws IOException if an I/O error has occurred.
+   */
+  @NotNull
+  private static Properties hashes(@NotNull final Collection<File> pluginFiles)
+    throws IOException {
+    final var hashes = new Properties();
+    for (final var file : pluginFiles) {
+      hashes.setProperty(
+        file.getAbsolutePath(),
+        PluginClassArchive.hash(file)
+      );
+    }
+    return hashes;
+  }
+
+  /**
+   * obtains the archive file.
+   *
+   * @return archive file.
+   */
+  @NotNull
+  public Path archiveFile() {
+    return this.directory.resolve(PluginClassArchive.ARCHIVE_FILE);
+  }
+
+  /**
+   * dumps the plugin hashes and the dynamic archive of the running JVM.
+   *
+   * @param pluginFiles the plugin files to dump.
+   *
+   * @return {@code true} if the archive dumped successfully.
+   */
+  public boolean dump(@NotNull final Collection<File> pluginFiles) {
+    try {
+      Files.createDirectories(this.directory);
+      try (
+        final var writer = Files.newBufferedWriter(
+          this.directory.resolve(PluginClassArchive.HASHES_FILE)
+        )
+      ) {
+        PluginClassArchive.hashes(pluginFiles).store(writer, null);
+      }
+      ManagementFactory
+        .getPlatformMBeanServer()
+        .invoke(
+          new ObjectName("com.sun.management:type=DiagnosticCommand"),
+          "vmCds",
+          new Object[] {
+            new String[] { "dynamic_dump", this.archiveFile().toString() },
+          },
+          new String[] { String[].class.getName() }
+        );
+      return true;
+    } catch (final IOException | JMException e) {
+      PluginClassArchive.log.error(
+        "Couldn't dump the plugin class archive into {}",
+        this.directory,
+        e
+      );
+      return false;
+    }
+  }
+
+  /**
+   * obtains the JVM arguments to map the archive on the next start.
+   *
+   * @return JVM arguments.
+   */
+  @NotNull
+  public String jvmArguments() {
+    return "-XX:SharedArchiveFile=" + this.archiveFile();
+  }
+
+  /**
+   * checks if the archive was dumped with exactly the given plugin files.
+   *
+   * @param pluginFiles the plugin files to check.
+   *
+   * @return {@code true} if the archive exists and the plugin hashes are matched.
+   */
+  public boolean usable(@NotNull final Collection<File> pluginFiles) {
+    final var hashesFile = this.directory.resolve(
+        PluginClassArchive.HASHES_FILE
+      );
+    if (Files.notExists(this.archiveFile()) || Files.notExists(hashesFile)) {
+      return false;
+    }
+    try (final var reader = Files.newBufferedReader(hashesFile)) {
+      final var archived = new Properties();
+      archived.load(reader);
+      return archived.equals(PluginClassArchive.hashes(pluginFiles));
+    } catch (final IOException e) {
+      PluginClassArchive.log.warn(
+        "Couldn't verify the plugin class archive in {}",
+        this.directory,
+        e
+      );
+      return false;
+    }
+  }
+}
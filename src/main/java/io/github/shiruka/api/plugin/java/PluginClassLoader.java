@@ -1,29 +1,39 @@
 package io.github.shiruka.api.plugin.java;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import com.google.common.io.ByteStreams;
-import com.google.inject.Guice;
 import io.github.shiruka.api.Shiruka;
 import io.github.shiruka.api.exception.InvalidPluginException;
 import io.github.shiruka.api.plugin.Plugin;
+import io.github.shiruka.api.plugin.PluginTimings;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.security.CodeSource;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
+import java.util.stream.Collectors;
 import java.util.zip.ZipFile;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -33,11 +43,39 @@ import org.jetbrains.annotations.Nullable;
 @Accessors(fluent = true)
 public final class PluginClassLoader extends URLClassLoader {
 
+  /**
+   * the max size of the resources to cache their bytes.
+   */
+  private static final long MAX_CACHED_RESOURCE_SIZE = 64L * 1024L;
+
+  /**
+   * the prefix of the versioned entries of multi-release jars.
+   */
+  private static final String VERSIONS = "META-INF/versions/";
+
+  /**
+   * the class buffer lock.
+   */
+  private final Object classBufferLock = new Object();
+
   /**
    * the classes.
    */
   private final Map<String, Class<?>> classes = Maps.newConcurrentMap();
 
+  /**
+   * the class names that the jar contains.
+   */
+  @Getter
+  @NotNull
+  private final Set<String> classNames;
+
+  /**
+   * the entry names that the jar contains.
+   */
+  @NotNull
+  private final Set<String> entryNames;
+
   /**
    * the jar.
    */
@@ -56,6 +94,14 @@ public final class PluginClassLoader extends URLClassLoader {
   @NotNull
   private final Manifest manifest;
 
+  /**
+   * the class names that could not be found neither locally nor globally.
+   */
+  private final Cache<String, Boolean> missingClasses = CacheBuilder
+    .newBuilder()
+    .maximumSize(1024L)
+    .build();
+
   /**
    * the plugin container.
    */
@@ -63,6 +109,20 @@ public final class PluginClassLoader extends URLClassLoader {
   @NotNull
   private final Plugin.Container pluginContainer;
 
+  /**
+   * the cached resource bytes by name.
+   */
+  private final Cache<String, byte[]> resourceBytes = CacheBuilder
+    .newBuilder()
+    .maximumWeight(1024L * 1024L)
+    .<String, byte[]>weigher((name, bytes) -> bytes.length)
+    .build();
+
+  /**
+   * the resource urls by name.
+   */
+  private final Map<String, URL> resourceUrls = Maps.newConcurrentMap();
+
   /**
    * the seen illegal access.
    */
@@ -74,6 +134,17 @@ public final class PluginClassLoader extends URLClassLoader {
   @NotNull
   private final URL url;
 
+  /**
+   * the reusable buffer to read class bytes into.
+   */
+  @NotNull
+  private ByteBuffer classBuffer = ByteBuffer.allocate(8192);
+
+  /**
+   * whether urls other than the plugin file are added.
+   */
+  private volatile boolean extraUrls;
+
   /**
    * ctor.
    *
@@ -99,53 +170,194 @@ public final class PluginClassLoader extends URLClassLoader {
       parent
     );
     this.loader = loader;
-    this.jar =
-      new JarFile(
-        pluginFile,
-        true,
-        ZipFile.OPEN_READ,
-        JarFile.runtimeVersion()
-      );
-    this.manifest = this.jar.getManifest();
+    try (
+      final var ignored = Shiruka
+        .pluginManager()
+        .timings()
+        .start(pluginFile.getName(), PluginTimings.Phase.OPEN_JAR)
+    ) {
+      this.jar =
+        new JarFile(
+          pluginFile,
+          true,
+          ZipFile.OPEN_READ,
+          JarFile.runtimeVersion()
+        );
+      this.manifest = this.jar.getManifest();
+      this.entryNames = PluginClassLoader.entryNames(this.jar);
+      this.classNames = PluginClassLoader.classNames(this.entryNames);
+    }
     this.url = pluginFile.toURI().toURL();
     final var logger = LogManager.getLogger(description.prefix());
-    final Class<?> mainClass;
-    final var mainClassPath = description.main();
-    try {
-      mainClass = Class.forName(mainClassPath, true, this);
-    } catch (final ClassNotFoundException ex) {
-      throw new InvalidPluginException(
-        "Cannot find main class `%s'".formatted(ex, mainClassPath)
-      );
+    if (description.lazy()) {
+      this.pluginContainer =
+        new Plugin.Container(
+          this,
+          dataFolder,
+          description,
+          this.loader,
+          logger,
+          () -> {
+            try {
+              return this.createPlugin(
+                  description,
+                  dataFolder,
+                  logger,
+                  pluginFile
+                );
+            } catch (final InvalidPluginException e) {
+              throw new IllegalStateException(e);
+            }
+          },
+          pluginFile
+        );
+    } else {
+      this.pluginContainer =
+        new Plugin.Container(
+          this,
+          dataFolder,
+          description,
+          this.loader,
+          logger,
+          this.createPlugin(description, dataFolder, logger, pluginFile),
+          pluginFile
+        );
     }
+  }
+
+  /**
+   * collects the class names from the jar entry names.
+   *
+   * @param entryNames the entry names to collect.
+   *
+   * @return class names.
+   */
+  @NotNull
+  private static Set<String> classNames(
+    @NotNull final Collection<String> entryNames
+  ) {
+    return entryNames
+      .stream()
+      .filter(name ->
+        name.endsWith(".class") && !name.startsWith("META-INF/")
+      )
+      .map(name -> name.substring(0, name.length() - 6).replace('/', '.'))
+      .filter(name -> !name.startsWith("io.github.shiruka."))
+      .collect(Collectors.toUnmodifiableSet());
+  }
+
+  /**
+   * collects the entry names, including directories, from the jar.
+   * <p>
+   * the entries of a multi-release jar under {@code META-INF/versions/N/}, where N is not newer than the runtime
+   * version, are also collected by their base names since the jar resolves the base names to them.
+   *
+   * @param jar the jar to collect.
+   *
+   * @return entry names.
+   */
+  @NotNull
+  private static Set<String> entryNames(@NotNull final JarFile jar) {
+    final var names = new HashSet<String>();
+    final var multiRelease = jar.isMultiRelease();
+    final var runtimeVersion = JarFile.runtimeVersion().feature();
+    jar
+      .stream()
+      .map(JarEntry::getName)
+      .forEach(name -> {
+        names.add(name);
+        if (!multiRelease || !name.startsWith(PluginClassLoader.VERSIONS)) {
+          return;
+        }
+        final var separator = name.indexOf(
+          '/',
+          PluginClassLoader.VERSIONS.length()
+        );
+        if (separator < 0 || separator == name.length() - 1) {
+          return;
+        }
+        final int version;
+        try {
+          version =
+            Integer.parseInt(
+              name.substring(PluginClassLoader.VERSIONS.length(), separator)
+            );
+        } catch (final NumberFormatException e) {
+          return;
+        }
+        if (version <= runtimeVersion) {
+          names.add(name.substring(separator + 1));
+        }
+      });
+    return Collections.unmodifiableSet(names);
+  }
+
+  /**
+   * loads the main class and creates the plugin instance.
+   *
+   * @param description the description to create.
+   * @param dataFolder the data folder to create.
+   * @param logger the logger to create.
+   * @param pluginFile the plugin file to create.
+   *
+   * @return a newly created plugin instance.
+   *
+   * @throws InvalidPluginException if something goes wrong when creating the plugin's instance.
+   */
+  @NotNull
+  private Plugin createPlugin(
+    @NotNull final Plugin.Description description,
+    @NotNull final Path dataFolder,
+    @NotNull final Logger logger,
+    @NotNull final File pluginFile
+  ) throws InvalidPluginException {
+    final var timings = Shiruka.pluginManager().timings();
     final Class<? extends Plugin> pluginClass;
-    try {
-      pluginClass = mainClass.asSubclass(Plugin.class);
-    } catch (final ClassCastException e) {
-      throw new InvalidPluginException(
-        "Main class `%s' does not implement Plugin".formatted(e, mainClassPath)
-      );
-    }
-    this.pluginContainer =
-      new Plugin.Container(
-        this,
-        dataFolder,
-        description,
-        this.loader,
-        logger,
-        Guice
-          .createInjector(
-            new JavaPluginModule(
-              dataFolder,
-              description,
-              logger,
-              pluginFile,
-              this
+    try (
+      final var ignored = timings.start(
+        pluginFile.getName(),
+        PluginTimings.Phase.INIT_MAIN_CLASS
+      )
+    ) {
+      final Class<?> mainClass;
+      final var mainClassPath = description.main();
+      try {
+        mainClass = Class.forName(mainClassPath, true, this);
+      } catch (final ClassNotFoundException ex) {
+        throw new InvalidPluginException(
+          "Cannot find main class `%s'".formatted(ex, mainClassPath)
+        );
+      }
+      try {
+        pluginClass = mainClass.asSubclass(Plugin.class);
+      } catch (final ClassCastException e) {
+        throw new InvalidPluginException(
+          "Main class `%s' does not implement Plugin".formatted(
+              e,
+              mainClassPath
             )
-          )
-          .getInstance(pluginClass),
-        pluginFile
-      );
+        );
+      }
+    }
+    try (
+      final var ignored = timings.start(
+        pluginFile.getName(),
+        PluginTimings.Phase.INJECT
+      )
+    ) {
+      return this.loader.injector()
+        .createChildInjector(
+          new JavaPluginModule(
+            dataFolder,
+            description,
+            logger,
+            pluginFile,
+            this
+          ),
+          new PluginTypesModule(this, pluginClass)
+        )
+        .getInstance(pluginClass);
+    }
   }
 
   @Override
@@ -160,6 +372,9 @@ public final class PluginClassLoader extends URLClassLoader {
   @Override
   public void addURL(@NotNull final URL url) {
     super.addURL(url);
+    this.extraUrls = true;
+    this.invalidateMissingClasses();
+    this.loader.invalidateMissingClasses();
   }
 
   @Override
@@ -179,12 +394,6 @@ public final class PluginClassLoader extends URLClassLoader {
       this.classes.put(name, result);
       return result;
     }
-    final byte[] classBytes;
-    try (final var is = this.jar.getInputStream(entry)) {
-      classBytes = ByteStreams.toByteArray(is);
-    } catch (final IOException ex) {
-      throw new ClassNotFoundException(name, ex);
-    }
     final var dot = name.lastIndexOf('.');
     if (dot != -1) {
       final var packageName = name.substring(0, dot);
@@ -200,14 +409,20 @@ public final class PluginClassLoader extends URLClassLoader {
         }
       }
     }
-    result =
-      this.defineClass(
-          name,
-          classBytes,
-          0,
-          classBytes.length,
-          new CodeSource(this.url, entry.getCodeSigners())
-        );
+    synchronized (this.classBufferLock) {
+      final ByteBuffer classBytes;
+      try (final var is = this.jar.getInputStream(entry)) {
+        classBytes = this.readClassBytes(is, entry.getSize());
+      } catch (final IOException ex) {
+        throw new ClassNotFoundException(name, ex);
+      }
+      result =
+        this.defineClass(
+            name,
+            classBytes,
+            new CodeSource(this.url, entry.getCodeSigners())
+          );
+    }
     if (result == null) {
       result = super.findClass(name);
     }
@@ -221,15 +436,107 @@ public final class PluginClassLoader extends URLClassLoader {
     return this.loadClass0(name, resolve, true);
   }
 
+  /**
+   * reads the class bytes into {@link #classBuffer}, grows it if the class does not fit.
+   *
+   * @param stream the stream to read.
+   * @param size the size to read, {@code -1} if unknown.
+   *
+   * @return flipped class buffer.
+   *
+   * @throws IOException if an I/O error has occurred.
+   */
+  @NotNull
+  private ByteBuffer readClassBytes(
+    @NotNull final InputStream stream,
+    final long size
+  ) throws IOException {
+    var buffer = this.classBuffer;
+    if (size >= buffer.capacity()) {
+      buffer = ByteBuffer.allocate(Math.toIntExact(size + 1));
+    }
+    buffer.clear();
+    while (true) {
+      if (!buffer.hasRemaining()) {
+        buffer =
+          ByteBuffer.allocate(buffer.capacity() << 1).put(buffer.flip());
+      }
+      final var read = stream.read(
+        buffer.array(),
+        buffer.arrayOffset() + buffer.position(),
+        buffer.remaining()
+      );
+      if (read == -1) {
+        break;
+      }
+      buffer.position(buffer.position() + read);
+    }
+    this.classBuffer = buffer;
+    return buffer.flip();
+  }
+
+  /**
+   * checks if urls other than the plugin file are added.
+   *
+   * @return {@code true} if urls other than the plugin file are added.
+   */
+  boolean extraUrls() {
+    return this.extraUrls;
+  }
+
+  /**
+   * clears the missing class cache.
+   */
+  void invalidateMissingClasses() {
+    this.missingClasses.invalidateAll();
+  }
+
   @Override
   public URL getResource(@NotNull final String name) {
-    return this.findResource(name);
+    if (!this.entryNames.contains(name)) {
+      return this.extraUrls ? this.findResource(name) : null;
+    }
+    return this.resourceUrls.computeIfAbsent(name, this::findResource);
+  }
+
+  @Override
+  public InputStream getResourceAsStream(@NotNull final String name) {
+    if (!this.entryNames.contains(name)) {
+      return super.getResourceAsStream(name);
+    }
+    final var cached = this.resourceBytes.getIfPresent(name);
+    if (cached != null) {
+      return new ByteArrayInputStream(cached);
+    }
+    final var entry = this.jar.getJarEntry(name);
+    if (
+      entry == null ||
+      entry.getSize() < 0 ||
+      entry.getSize() > PluginClassLoader.MAX_CACHED_RESOURCE_SIZE
+    ) {
+      return super.getResourceAsStream(name);
+    }
+    final byte[] bytes;
+    try (final var is = this.jar.getInputStream(entry)) {
+      bytes = is.readAllBytes();
+    } catch (final IOException e) {
+      return null;
+    }
+    this.resourceBytes.put(name, bytes);
+    return new ByteArrayInputStream(bytes);
   }
 
   @Override
   public Enumeration<URL> getResources(@NotNull final String name)
     throws IOException {
-    return this.findResources(name);
+    if (this.extraUrls) {
+      return this.findResources(name);
+    }
+    final var resource = this.getResource(name);
+    if (resource == null) {
+      return Collections.emptyEnumeration();
+    }
+    return Collections.enumeration(List.of(resource));
   }
 
   /**
@@ -249,22 +556,20 @@ public final class PluginClassLoader extends URLClassLoader {
     final boolean resolve,
     final boolean checkGlobal
   ) throws ClassNotFoundException {
+    if (this.missingClasses.getIfPresent(classPath) != null) {
+      throw new ClassNotFoundException(classPath);
+    }
     try {
       return super.loadClass(classPath, resolve);
     } catch (final ClassNotFoundException ignored) {}
     if (!checkGlobal) {
       throw new ClassNotFoundException(classPath);
     }
-    final var result = Optional
-      .ofNullable(
-        this.loader.getClassByName(
-            classPath,
-            resolve,
-            this.pluginContainer,
-            this
-          )
-      )
-      .orElseThrow(() -> new ClassNotFoundException(classPath));
+    final var result = this.loader.getClassByName(classPath, resolve, this);
+    if (result == null) {
+      this.missingClasses.put(classPath, Boolean.TRUE);
+      throw new ClassNotFoundException(classPath);
+    }
     if (
       !(result.getClassLoader() instanceof PluginClassLoader pluginClassLoader)
     ) {
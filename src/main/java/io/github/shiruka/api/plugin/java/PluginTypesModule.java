@@ -0,0 +1,126 @@
+package io.github.shiruka.api.plugin.java;
+
+import com.google.inject.Binder;
+import com.google.inject.ConfigurationException;
+import com.google.inject.ImplementedBy;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.InjectionPoint;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents the module which binds the plugin's own types in the plugin's child injector.
+ * <p>
+ * the plugin types that the main class reaches through its injection points are bound explicitly in the child injector,
+ * so Guice does not create their just-in-time bindings in the long-lived parent injector which would keep the plugin's
+ * class loader reachable after the plugin is unloaded. the other types are still bound just-in-time as before, so the
+ * module does not change which injections succeed.
+ *
+ * @param classLoader the class loader of the plugin.
+ * @param main the main class of the plugin.
+ */
+record PluginTypesModule(
+  @NotNull ClassLoader classLoader,
+  @NotNull Class<?> main
+)
+  implements Module {
+  /**
+   * collects the dependencies of the type's constructor, methods and fields.
+   *
+   * @param type the type to collect.
+   *
+   * @return dependencies of the type, empty if the type is not injectable.
+   */
+  @NotNull
+  private static Set<Dependency<?>> dependencies(
+    @NotNull final TypeLiteral<?> type
+  ) {
+    final var injectionPoints = new HashSet<InjectionPoint>();
+    try {
+      injectionPoints.add(InjectionPoint.forConstructorOf(type));
+      injectionPoints.addAll(InjectionPoint.forInstanceMethodsAndFields(type));
+    } catch (final ConfigurationException ignored) {
+      // the injector reports the type when it is created.
+    }
+    return Dependency.forInjectionPoints(injectionPoints);
+  }
+
+  /**
+   * obtains the injected type of the key, unwraps providers.
+   *
+   * @param key the key to obtain.
+   *
+   * @return injected type.
+   */
+  @NotNull
+  private static TypeLiteral<?> injectedType(@NotNull final Key<?> key) {
+    final var type = key.getTypeLiteral();
+    final var rawType = type.getRawType();
+    if (
+      (
+        rawType == com.google.inject.Provider.class ||
+        rawType == javax.inject.Provider.class
+      ) &&
+      type.getType() instanceof ParameterizedType parameterized
+    ) {
+      return TypeLiteral.get(parameterized.getActualTypeArguments()[0]);
+    }
+    return type;
+  }
+
+  /**
+   * links the type to its implementation.
+   *
+   * @param binder the binder to link.
+   * @param type the type to link.
+   * @param implementation the implementation to link.
+   */
+  @SuppressWarnings("unchecked")
+  private static void link(
+    @NotNull final Binder binder,
+    @NotNull final TypeLiteral<?> type,
+    @NotNull final Class<?> implementation
+  ) {
+    binder
+      .bind((TypeLiteral<Object>) type)
+      .to((Class<Object>) implementation);
+  }
+
+  @Override
+  public void configure(final Binder binder) {
+    final var visited = new HashSet<TypeLiteral<?>>();
+    final var queue = new ArrayDeque<TypeLiteral<?>>();
+    queue.add(TypeLiteral.get(this.main));
+    while (!queue.isEmpty()) {
+      final var type = queue.poll();
+      if (!visited.add(type)) {
+        continue;
+      }
+      final var implementedBy = type.getRawType().getAnnotation(
+        ImplementedBy.class
+      );
+      if (implementedBy == null) {
+        binder.bind(type);
+      } else {
+        PluginTypesModule.link(binder, type, implementedBy.value());
+        queue.add(TypeLiteral.get(implementedBy.value()));
+      }
+      for (final var dependency : PluginTypesModule.dependencies(type)) {
+        final var key = dependency.getKey();
+        final var injected = PluginTypesModule.injectedType(key);
+        if (
+          key.getAnnotationType() == null &&
+          injected.getRawType().getClassLoader() == this.classLoader
+        ) {
+          queue.add(injected);
+        }
+      }
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package io.github.shiruka.api.scheduler;
 
 import io.github.shiruka.api.plugin.Plugin;
+import io.github.shiruka.api.plugin.PluginResources;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -334,7 +335,7 @@ public interface Task {
     private final long interval;
 
     /**
-     * the job.
+     * the job, its usage is accounted to the plugin.
      */
     @NotNull
     private final Consumer<ScheduledTask> job;
@@ -367,7 +368,19 @@ public interface Task {
       this.plugin = builder.plugin();
       this.delay = builder.delay();
       this.interval = builder.interval();
-      this.job = builder.job();
+      final var job = builder.job();
+      final var resources = this.plugin.resources();
+      this.job =
+        scheduledTask -> {
+          if (!PluginResources.enabled()) {
+            job.accept(scheduledTask);
+            return;
+          }
+          resources.measure(
+            PluginResources.Source.TASK,
+            () -> job.accept(scheduledTask)
+          );
+        };
       this.name = builder.name();
     }
   }
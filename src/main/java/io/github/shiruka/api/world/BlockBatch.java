@@ -0,0 +1,371 @@
+package io.github.shiruka.api.world;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.github.shiruka.api.base.Vector3i;
+import io.github.shiruka.api.common.ChunkMap;
+import io.github.shiruka.api.common.Positions;
+import io.github.shiruka.api.event.world.BlockBatchEvent;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntMaps;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents batches of block changes.
+ * <p>
+ * the changes are buffered per section, the last change of a block wins. {@link #apply()} loads or generates each
+ * chunk once, writes the changes of each section in one pass, updates each changed heightmap column once, marks each
+ * changed chunk dirty once and posts a single {@link BlockBatchEvent} instead of one event per block. the blocks above
+ * and below the world's height are ignored.
+ */
+public final class BlockBatch {
+
+  /**
+   * the buffered changes by their chunk, then their section y, then their {@link Chunk.Section#index(int, int, int)}.
+   */
+  private final ChunkMap<Int2ObjectMap<Int2IntMap>> chunks = new ChunkMap<>();
+
+  /**
+   * the world.
+   */
+  @NotNull
+  private final World world;
+
+  /**
+   * the buffered change count.
+   */
+  private int size;
+
+  /**
+   * ctor.
+   *
+   * @param world the world.
+   */
+  public BlockBatch(@NotNull final World world) {
+    this.world = world;
+  }
+
+  /**
+   * applies the buffered changes and clears the batch.
+   * <p>
+   * posts a {@link BlockBatchEvent} if any block changed.
+   *
+   * @return applied changes, the blocks that are already in the state are not included.
+   */
+  @NotNull
+  @CanIgnoreReturnValue
+  public Changes apply() {
+    final var changes = new Changes();
+    this.chunks.forEach((chunkX, chunkZ, sections) ->
+        this.apply(changes, chunkX, chunkZ, sections)
+      );
+    this.chunks.clear();
+    this.size = 0;
+    if (!changes.isEmpty()) {
+      new BlockBatchEvent(this.world, changes).postEvent();
+    }
+    return changes;
+  }
+
+  /**
+   * checks if the batch is empty.
+   *
+   * @return {@code true} if the batch is empty.
+   */
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  /**
+   * buffers the change of the block.
+   *
+   * @param position the position to set.
+   * @param state the state to set.
+   *
+   * @return {@code this} for the chain.
+   */
+  @NotNull
+  @CanIgnoreReturnValue
+  public BlockBatch set(@NotNull final Vector3i position, final int state) {
+    return this.set(position.x(), position.y(), position.z(), state);
+  }
+
+  /**
+   * buffers the change of the block.
+   *
+   * @param x the x to set.
+   * @param y the y to set.
+   * @param z the z to set.
+   * @param state the state to set.
+   *
+   * @return {@code this} for the chain.
+   */
+  @NotNull
+  @CanIgnoreReturnValue
+  public BlockBatch set(
+    final int x,
+    final int y,
+    final int z,
+    final int state
+  ) {
+    var sections = this.chunks.get(x >> 4, z >> 4);
+    if (sections == null) {
+      sections = new Int2ObjectOpenHashMap<>();
+      this.chunks.put(x >> 4, z >> 4, sections);
+    }
+    var section = sections.get(y >> 4);
+    if (section == null) {
+      section = new Int2IntOpenHashMap();
+      sections.put(y >> 4, section);
+    }
+    if (!section.containsKey(Chunk.Section.index(x, y, z))) {
+      this.size++;
+    }
+    section.put(Chunk.Section.index(x, y, z), state);
+    return this;
+  }
+
+  /**
+   * obtains the buffered change count.
+   *
+   * @return buffered change count.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * applies the buffered changes of the chunk.
+   *
+   * @param changes the changes to apply.
+   * @param chunkX the chunk x to apply.
+   * @param chunkZ the chunk z to apply.
+   * @param sections the sections to apply.
+   */
+  private void apply(
+    @NotNull final Changes changes,
+    final int chunkX,
+    final int chunkZ,
+    @NotNull final Int2ObjectMap<Int2IntMap> sections
+  ) {
+    final var chunk = this.world.chunkAtOrGenerate(chunkX, chunkZ);
+    final var maxSolidY = new int[Chunk.Section.SIZE * Chunk.Section.SIZE];
+    Arrays.fill(maxSolidY, Integer.MIN_VALUE);
+    final var sizeBefore = changes.size();
+    for (final var entry : Int2ObjectMaps.fastIterable(sections)) {
+      final var sectionY = entry.getIntKey();
+      if (sectionY < chunk.minSectionY() || sectionY > chunk.maxSectionY()) {
+        continue;
+      }
+      final var section = chunk.section(sectionY);
+      for (final var change : Int2IntMaps.fastIterable(entry.getValue())) {
+        final var index = change.getIntKey();
+        final var x = index & 15;
+        final var y = index >> 8 & 15;
+        final var z = index >> 4 & 15;
+        final var state = change.getIntValue();
+        final var previous = section.set(x, y, z, state);
+        if (previous == state) {
+          continue;
+        }
+        final var blockY = sectionY << 4 | y;
+        changes.add(chunkX << 4 | x, blockY, chunkZ << 4 | z, previous, state);
+        final var column = z << 4 | x;
+        maxSolidY[column] =
+          Math.max(
+            maxSolidY[column],
+            state == Chunk.Section.AIR ? Heightmap.EMPTY : blockY
+          );
+      }
+    }
+    if (changes.size() == sizeBefore) {
+      return;
+    }
+    final var heightmap = chunk.heightmap();
+    for (var column = 0; column < maxSolidY.length; column++) {
+      if (maxSolidY[column] != Integer.MIN_VALUE) {
+        heightmap.refreshColumn(
+          chunk,
+          column & 15,
+          column >> 4,
+          maxSolidY[column]
+        );
+      }
+    }
+    chunk.dirty(true);
+  }
+
+  /**
+   * a class that represents applied block changes.
+   * <p>
+   * the changed sections and the neighbors of the changed blocks are collected once for the whole batch, so light and
+   * neighbor updates run once per section and once per block instead of once per change.
+   */
+  public static final class Changes {
+
+    /**
+     * the positions of the changed blocks, packed with {@link Positions#block(int, int, int)}.
+     */
+    private final LongArrayList positions = new LongArrayList();
+
+    /**
+     * the previous states of the changed blocks.
+     */
+    private final IntArrayList previousStates = new IntArrayList();
+
+    /**
+     * the changed sections, packed with {@link Positions#block(int, int, int)} as chunk x, section y and chunk z.
+     */
+    private final LongSet sections = new LongOpenHashSet();
+
+    /**
+     * the new states of the changed blocks.
+     */
+    private final IntArrayList states = new IntArrayList();
+
+    /**
+     * ctor.
+     */
+    private Changes() {}
+
+    /**
+     * adds the neighbor if it did not change.
+     *
+     * @param changed the changed to check.
+     * @param neighbors the neighbors to add.
+     * @param x the x to add.
+     * @param y the y to add.
+     * @param z the z to add.
+     */
+    private static void neighbor(
+      @NotNull final LongSet changed,
+      @NotNull final LongSet neighbors,
+      final int x,
+      final int y,
+      final int z
+    ) {
+      final var position = Positions.block(x, y, z);
+      if (!changed.contains(position)) {
+        neighbors.add(position);
+      }
+    }
+
+    /**
+     * runs the consumer for each changed block in the order that the blocks were applied.
+     *
+     * @param consumer the consumer to run.
+     */
+    public void forEach(@NotNull final Consumer consumer) {
+      for (var index = 0; index < this.positions.size(); index++) {
+        final var position = this.positions.getLong(index);
+        consumer.accept(
+          Positions.blockX(position),
+          Positions.blockY(position),
+          Positions.blockZ(position),
+          this.previousStates.getInt(index),
+          this.states.getInt(index)
+        );
+      }
+    }
+
+    /**
+     * checks if no block changed.
+     *
+     * @return {@code true} if no block changed.
+     */
+    public boolean isEmpty() {
+      return this.positions.isEmpty();
+    }
+
+    /**
+     * collects the blocks that are next to the changed blocks and did not change themselves.
+     *
+     * @return neighbors of the changed blocks, packed with {@link Positions#block(int, int, int)}, each one once.
+     */
+    @NotNull
+    public LongSet neighbors() {
+      final var changed = new LongOpenHashSet(this.positions);
+      final var neighbors = new LongOpenHashSet();
+      for (var index = 0; index < this.positions.size(); index++) {
+        final var position = this.positions.getLong(index);
+        final var x = Positions.blockX(position);
+        final var y = Positions.blockY(position);
+        final var z = Positions.blockZ(position);
+        Changes.neighbor(changed, neighbors, x - 1, y, z);
+        Changes.neighbor(changed, neighbors, x + 1, y, z);
+        Changes.neighbor(changed, neighbors, x, y - 1, z);
+        Changes.neighbor(changed, neighbors, x, y + 1, z);
+        Changes.neighbor(changed, neighbors, x, y, z - 1);
+        Changes.neighbor(changed, neighbors, x, y, z + 1);
+      }
+      return neighbors;
+    }
+
+    /**
+     * obtains the changed sections.
+     *
+     * @return changed sections, packed with {@link Positions#block(int, int, int)} as chunk x, section y and chunk z.
+     */
+    @NotNull
+    public LongSet sections() {
+      return LongSets.unmodifiable(this.sections);
+    }
+
+    /**
+     * obtains the changed block count.
+     *
+     * @return changed block count.
+     */
+    public int size() {
+      return this.positions.size();
+    }
+
+    /**
+     * adds the change.
+     *
+     * @param x the x to add.
+     * @param y the y to add.
+     * @param z the z to add.
+     * @param previousState the previous state to add.
+     * @param state the state to add.
+     */
+    private void add(
+      final int x,
+      final int y,
+      final int z,
+      final int previousState,
+      final int state
+    ) {
+      this.positions.add(Positions.block(x, y, z));
+      this.previousStates.add(previousState);
+      this.states.add(state);
+      this.sections.add(Positions.block(x >> 4, y >> 4, z >> 4));
+    }
+
+    /**
+     * an interface to determine consumers of the changed blocks.
+     */
+    @FunctionalInterface
+    public interface Consumer {
+      /**
+       * accepts the changed block.
+       *
+       * @param x the x to accept.
+       * @param y the y to accept.
+       * @param z the z to accept.
+       * @param previousState the previous state to accept.
+       * @param state the state to accept.
+       */
+      void accept(int x, int y, int z, int previousState, int state);
+    }
+  }
+}
@@ -1,11 +1,526 @@
 package io.github.shiruka.api.world;
 
+import com.google.common.base.Preconditions;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
 /**
  * an interface to determine chunks.
  */
 public interface Chunk {
   /**
-   * an interface to determine chunk sections.
+   * gets the block state at the position.
+   *
+   * @param x the x in the chunk to get.
+   * @param y the y in the world to get.
+   * @param z the z in the chunk to get.
+   *
+   * @return block state at the position, {@link Section#AIR} if the y is out of the chunk's height.
+   */
+  default int blockState(
+    @Range(from = 0, to = 15) final int x,
+    final int y,
+    @Range(from = 0, to = 15) final int z
+  ) {
+    final var sectionY = y >> 4;
+    if (sectionY < this.minSectionY() || sectionY > this.maxSectionY()) {
+      return Section.AIR;
+    }
+    return this.section(sectionY).get(x, y & 15, z);
+  }
+
+  /**
+   * sets the block state at the position and updates the heightmap.
+   *
+   * @param x the x in the chunk to set.
+   * @param y the y in the world to set.
+   * @param z the z in the chunk to set.
+   * @param state the state to set.
+   *
+   * @return previous block state at the position.
+   *
+   * @throws IllegalArgumentException if the y is out of the chunk's height.
+   */
+  @CanIgnoreReturnValue
+  default int blockState(
+    @Range(from = 0, to = 15) final int x,
+    final int y,
+    @Range(from = 0, to = 15) final int z,
+    final int state
+  ) {
+    final var sectionY = y >> 4;
+    Preconditions.checkArgument(
+      sectionY >= this.minSectionY() && sectionY <= this.maxSectionY(),
+      "The y %s is out of the chunk's height!",
+      y
+    );
+    final var previous = this.section(sectionY).set(x, y & 15, z, state);
+    if (previous != state) {
+      this.heightmap().update(this, x, y, z, state);
+      this.dirty(true);
+    }
+    return previous;
+  }
+
+  /**
+   * checks if the chunk is changed since it is saved.
+   *
+   * @return {@code true} if the chunk is changed since it is saved.
+   */
+  boolean dirty();
+
+  /**
+   * sets the dirty.
+   *
+   * @param dirty the dirty to set.
    */
-  interface Section {}
+  void dirty(boolean dirty);
+
+  /**
+   * obtains the heightmap.
+   *
+   * @return heightmap.
+   */
+  @NotNull
+  Heightmap heightmap();
+
+  /**
+   * obtains the highest section y.
+   *
+   * @return highest section y, inclusive.
+   */
+  int maxSectionY();
+
+  /**
+   * obtains the lowest section y.
+   *
+   * @return lowest section y, inclusive.
+   */
+  int minSectionY();
+
+  /**
+   * gets the section at the section y.
+   *
+   * @param sectionY the section y to get, between {@link #minSectionY()} and {@link #maxSectionY()}.
+   *
+   * @return section at the section y.
+   */
+  @NotNull
+  Section section(int sectionY);
+
+  /**
+   * creates a snapshot of the chunk to save it while the chunk keeps changing.
+   * <p>
+   * the snapshot copies the sections with {@link Section#copy()}.
+   *
+   * @return a newly created snapshot.
+   */
+  @NotNull
+  Chunk snapshot();
+
+  /**
+   * obtains the x.
+   *
+   * @return x.
+   */
+  int x();
+
+  /**
+   * obtains the z.
+   *
+   * @return z.
+   */
+  int z();
+
+  /**
+   * an interface to determine 16x16x16 chunk sections.
+   * <p>
+   * blocks are stored as block state ids, local coordinates of the methods are in {@code [0, 16)}.
+   */
+  interface Section {
+    /**
+     * the air block state id.
+     */
+    int AIR = 0;
+
+    /**
+     * the size of an edge of the section.
+     */
+    int SIZE = 16;
+
+    /**
+     * the block count of the section.
+     */
+    int VOLUME = Section.SIZE * Section.SIZE * Section.SIZE;
+
+    /**
+     * creates an empty section that is filled with air.
+     *
+     * @return a newly created section.
+     */
+    @NotNull
+    static Section empty() {
+      return Section.uniform(Section.AIR);
+    }
+
+    /**
+     * calculates the index of the local position.
+     *
+     * @param x the x to calculate.
+     * @param y the y to calculate.
+     * @param z the z to calculate.
+     *
+     * @return index of the local position.
+     */
+    static int index(final int x, final int y, final int z) {
+      return (y & 15) << 8 | (z & 15) << 4 | x & 15;
+    }
+
+    /**
+     * creates a section that is filled with the block state.
+     *
+     * @param state the state to create.
+     *
+     * @return a newly created section.
+     */
+    @NotNull
+    static Section uniform(final int state) {
+      return new Impl(state);
+    }
+
+    /**
+     * obtains the bits per entry of the packed indices.
+     *
+     * @return bits per entry, {@code 0} if the section is uniform.
+     */
+    int bitsPerEntry();
+
+    /**
+     * creates a copy of the section.
+     *
+     * @return a newly created copy.
+     */
+    @NotNull
+    Section copy();
+
+    /**
+     * fills the section with the block state.
+     *
+     * @param state the state to fill.
+     */
+    void fill(int state);
+
+    /**
+     * gets the block state at the local position.
+     *
+     * @param x the x to get.
+     * @param y the y to get.
+     * @param z the z to get.
+     *
+     * @return block state at the local position.
+     */
+    int get(
+      @Range(from = 0, to = 15) int x,
+      @Range(from = 0, to = 15) int y,
+      @Range(from = 0, to = 15) int z
+    );
+
+    /**
+     * checks if the section contains only air.
+     *
+     * @return {@code true} if the section contains only air.
+     */
+    default boolean isEmpty() {
+      return this.isUniform() && this.get(0, 0, 0) == Section.AIR;
+    }
+
+    /**
+     * checks if the whole section is the same block state.
+     *
+     * @return {@code true} if the section is uniform.
+     */
+    boolean isUniform();
+
+    /**
+     * obtains the palette size.
+     *
+     * @return palette size.
+     */
+    int paletteSize();
+
+    /**
+     * sets the block state at the local position.
+     *
+     * @param x the x to set.
+     * @param y the y to set.
+     * @param z the z to set.
+     * @param state the state to set.
+     *
+     * @return previous block state at the local position.
+     */
+    @CanIgnoreReturnValue
+    int set(
+      @Range(from = 0, to = 15) int x,
+      @Range(from = 0, to = 15) int y,
+      @Range(from = 0, to = 15) int z,
+      int state
+    );
+
+    /**
+     * a simple implementation of {@link Section} that is backed by a palette and bit-packed indices.
+     * <p>
+     * a uniform section stores only its block state. once a second block state is set, the indices are packed into
+     * a {@code long[]} without spanning entries across longs and the bits per entry grow with the palette, from 4 up
+     * to 13. the palette does not shrink until the section is filled, {@link #compact()} is called or it runs out of
+     * ids, which then compacts it. the implementation is not thread-safe.
+     */
+    final class Impl implements Section {
+
+      /**
+       * the max bits per entry.
+       */
+      private static final int MAX_BITS = 13;
+
+      /**
+       * the min bits per entry of a non-uniform section.
+       */
+      private static final int MIN_BITS = 4;
+
+      /**
+       * the bits per entry.
+       */
+      private int bits;
+
+      /**
+       * the packed indices, {@code null} if the section is uniform.
+       */
+      private long @Nullable [] data;
+
+      /**
+       * the mask of an entry.
+       */
+      private long mask;
+
+      /**
+       * the palette ids by their block state.
+       */
+      @Nullable
+      private Int2IntMap paletteIds;
+
+      /**
+       * the palette.
+       */
+      private int @NotNull [] palette;
+
+      /**
+       * the palette size.
+       */
+      private int paletteSize;
+
+      /**
+       * the entries per long.
+       */
+      private int perLong;
+
+      /**
+       * ctor.
+       *
+       * @param state the state.
+       */
+      private Impl(final int state) {
+        this.palette = new int[] { state };
+        this.paletteSize = 1;
+      }
+
+      @Override
+      public int bitsPerEntry() {
+        return this.bits;
+      }
+
+      /**
+       * rebuilds the palette with only the block states that the section contains.
+       */
+      public void compact() {
+        final var data = this.data;
+        if (data == null) {
+          return;
+        }
+        final var states = new int[Section.VOLUME];
+        for (var index = 0; index < Section.VOLUME; index++) {
+          states[index] = this.palette[this.read(data, index)];
+        }
+        final var first = states[0];
+        this.fill(first);
+        for (var index = 1; index < Section.VOLUME; index++) {
+          if (states[index] != first) {
+            this.write(index, this.paletteId(states[index]));
+          }
+        }
+      }
+
+      @NotNull
+      @Override
+      public Section copy() {
+        final var copy = new Impl(this.palette[0]);
+        if (this.data == null) {
+          return copy;
+        }
+        copy.bits = this.bits;
+        copy.data = this.data.clone();
+        copy.mask = this.mask;
+        copy.palette = Arrays.copyOf(this.palette, this.paletteSize);
+        copy.paletteSize = this.paletteSize;
+        copy.perLong = this.perLong;
+        return copy;
+      }
+
+      @Override
+      public void fill(final int state) {
+        this.bits = 0;
+        this.data = null;
+        this.mask = 0L;
+        this.paletteIds = null;
+        this.palette = new int[] { state };
+        this.paletteSize = 1;
+        this.perLong = 0;
+      }
+
+      @Override
+      public int get(final int x, final int y, final int z) {
+        final var data = this.data;
+        if (data == null) {
+          return this.palette[0];
+        }
+        return this.palette[this.read(data, Section.index(x, y, z))];
+      }
+
+      @Override
+      public boolean isUniform() {
+        return this.data == null;
+      }
+
+      @Override
+      public int paletteSize() {
+        return this.paletteSize;
+      }
+
+      @Override
+      public int set(final int x, final int y, final int z, final int state) {
+        final var index = Section.index(x, y, z);
+        final var data = this.data;
+        final var previous = data == null
+          ? this.palette[0]
+          : this.palette[this.read(data, index)];
+        if (previous != state) {
+          this.write(index, this.paletteId(state));
+        }
+        return previous;
+      }
+
+      /**
+       * obtains the palette id of the block state, adds the block state to the palette if it is absent.
+       *
+       * @param state the state to obtain.
+       *
+       * @return palette id.
+       */
+      private int paletteId(final int state) {
+        if (this.paletteIds == null) {
+          this.paletteIds = new Int2IntOpenHashMap(this.palette.length);
+          this.paletteIds.defaultReturnValue(-1);
+          for (var index = 0; index < this.paletteSize; index++) {
+            this.paletteIds.put(this.palette[index], index);
+          }
+        }
+        final var existing = this.paletteIds.get(state);
+        if (existing != -1) {
+          return existing;
+        }
+        if (this.paletteSize == 1 << Impl.MAX_BITS) {
+          this.compact();
+          return this.paletteId(state);
+        }
+        final var paletteId = this.paletteSize++;
+        if (paletteId == this.palette.length) {
+          this.palette =
+            Arrays.copyOf(
+              this.palette,
+              Math.min(this.palette.length * 2, 1 << Impl.MAX_BITS)
+            );
+        }
+        this.palette[paletteId] = state;
+        this.paletteIds.put(state, paletteId);
+        if (this.data == null) {
+          this.resize(Impl.MIN_BITS);
+        } else if (paletteId > this.mask) {
+          this.resize(Math.min(this.bits + 1, Impl.MAX_BITS));
+        }
+        return paletteId;
+      }
+
+      /**
+       * reads the palette id at the index.
+       *
+       * @param data the data to read.
+       * @param index the index to read.
+       *
+       * @return palette id.
+       */
+      private int read(final long @NotNull [] data, final int index) {
+        final var offset = (index % this.perLong) * this.bits;
+        return (int) (data[index / this.perLong] >>> offset & this.mask);
+      }
+
+      /**
+       * repacks the indices with the bits per entry.
+       *
+       * @param bits the bits to repack.
+       */
+      private void resize(final int bits) {
+        final var old = this.data;
+        final var oldBits = this.bits;
+        final var oldPerLong = this.perLong;
+        final var oldMask = this.mask;
+        this.bits = bits;
+        this.mask = (1L << bits) - 1L;
+        this.perLong = Long.SIZE / bits;
+        this.data =
+          new long[(Section.VOLUME + this.perLong - 1) / this.perLong];
+        if (old == null) {
+          return;
+        }
+        for (var index = 0; index < Section.VOLUME; index++) {
+          final var offset = (index % oldPerLong) * oldBits;
+          final var paletteId = (int) (
+            old[index / oldPerLong] >>> offset & oldMask
+          );
+          if (paletteId != 0) {
+            this.write(index, paletteId);
+          }
+        }
+      }
+
+      /**
+       * writes the palette id at the index.
+       *
+       * @param index the index to write.
+       * @param paletteId the palette id to write.
+       */
+      private void write(final int index, final int paletteId) {
+        final var data = this.data;
+        assert data != null;
+        final var offset = (index % this.perLong) * this.bits;
+        final var slot = index / this.perLong;
+        data[slot] =
+          data[slot] &
+          ~(this.mask << offset) |
+          (paletteId & this.mask) << offset;
+      }
+    }
+  }
 }
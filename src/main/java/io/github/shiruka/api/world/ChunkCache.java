@@ -0,0 +1,304 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.base.Preconditions;
+import io.github.shiruka.api.common.Positions;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents caches of the loaded chunks of a world.
+ * <p>
+ * chunks are kept loaded while they have tickets, such as a player or a spawn area that keeps them in use. the chunks
+ * without tickets are kept in least recently used order and unloaded once their total weight exceeds the max weight,
+ * so idle chunks are unloaded without calling {@link World#unloadChunk(int, int)}. the chunks with tickets do not count
+ * towards the max weight. tickets can be added before the chunk is loaded.
+ */
+public final class ChunkCache {
+
+  /**
+   * the entries by their packed position.
+   */
+  private final Long2ObjectMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * the entries without tickets in least recently used order.
+   */
+  private final Long2ObjectLinkedOpenHashMap<Entry> idle = new Long2ObjectLinkedOpenHashMap<>();
+
+  /**
+   * the max weight.
+   */
+  private final long maxWeight;
+
+  /**
+   * the ticket counts by their packed position.
+   */
+  private final Long2IntMap tickets = new Long2IntOpenHashMap();
+
+  /**
+   * the unloader.
+   */
+  @NotNull
+  private final Unloader unloader;
+
+  /**
+   * the weigher.
+   */
+  @NotNull
+  private final ToLongFunction<Chunk> weigher;
+
+  /**
+   * the total weight of the chunks without tickets.
+   */
+  private long idleWeight;
+
+  /**
+   * the weight.
+   */
+  private long weight;
+
+  /**
+   * ctor.
+   *
+   * @param maxWeight the max weight, the memory ceiling of the chunks without tickets.
+   * @param weigher the weigher that estimates the memory usage of a chunk in bytes.
+   * @param unloader the unloader that runs for the evicted chunks.
+   */
+  public ChunkCache(
+    final long maxWeight,
+    @NotNull final ToLongFunction<Chunk> weigher,
+    @NotNull final Unloader unloader
+  ) {
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+    this.unloader = unloader;
+  }
+
+  /**
+   * adds a ticket to the chunk at the position.
+   *
+   * @param x the x to add.
+   * @param z the z to add.
+   *
+   * @return ticket count of the chunk.
+   */
+  public synchronized int addTicket(final int x, final int z) {
+    final var key = Positions.chunk(x, z);
+    final var count = this.tickets.mergeInt(key, 1, Integer::sum);
+    if (count == 1) {
+      final var entry = this.idle.remove(key);
+      if (entry != null) {
+        this.idleWeight -= entry.weight;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * gets the chunk at the position and marks it as recently used.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return chunk at the position, {@code null} if the chunk is not cached.
+   */
+  @Nullable
+  public synchronized Chunk get(final int x, final int z) {
+    final var key = Positions.chunk(x, z);
+    final var entry = this.entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (!this.tickets.containsKey(key)) {
+      this.idle.getAndMoveToLast(key);
+    }
+    return entry.chunk;
+  }
+
+  /**
+   * obtains the total weight of the cached chunks without tickets.
+   *
+   * @return idle weight.
+   */
+  public synchronized long idleWeight() {
+    return this.idleWeight;
+  }
+
+  /**
+   * puts the chunk at the position, evicts the least recently used chunks if the chunks without tickets exceed the max
+   * weight.
+   *
+   * @param x the x to put.
+   * @param z the z to put.
+   * @param chunk the chunk to put.
+   */
+  public void put(final int x, final int z, @NotNull final Chunk chunk) {
+    final List<Entry> evicted;
+    synchronized (this) {
+      final var key = Positions.chunk(x, z);
+      final var entry = new Entry(
+        chunk,
+        key,
+        this.weigher.applyAsLong(chunk)
+      );
+      final var previous = this.entries.put(key, entry);
+      if (previous != null) {
+        this.weight -= previous.weight;
+      }
+      this.weight += entry.weight;
+      if (!this.tickets.containsKey(key)) {
+        final var previousIdle = this.idle.putAndMoveToLast(key, entry);
+        if (previousIdle != null) {
+          this.idleWeight -= previousIdle.weight;
+        }
+        this.idleWeight += entry.weight;
+      }
+      evicted = this.evict();
+    }
+    this.unload(evicted);
+  }
+
+  /**
+   * removes the chunk at the position without running the unloader, the tickets of the chunk are kept.
+   *
+   * @param x the x to remove.
+   * @param z the z to remove.
+   *
+   * @return removed chunk, {@code null} if the chunk is not cached.
+   */
+  @Nullable
+  public synchronized Chunk remove(final int x, final int z) {
+    final var key = Positions.chunk(x, z);
+    final var entry = this.entries.remove(key);
+    if (entry == null) {
+      return null;
+    }
+    if (this.idle.remove(key) != null) {
+      this.idleWeight -= entry.weight;
+    }
+    this.weight -= entry.weight;
+    return entry.chunk;
+  }
+
+  /**
+   * removes a ticket from the chunk at the position, evicts the least recently used chunks if the chunks without
+   * tickets exceed the max weight.
+   *
+   * @param x the x to remove.
+   * @param z the z to remove.
+   *
+   * @return ticket count of the chunk.
+   *
+   * @throws IllegalStateException if the chunk has no ticket.
+   */
+  public int removeTicket(final int x, final int z) {
+    final List<Entry> evicted;
+    final int count;
+    synchronized (this) {
+      final var key = Positions.chunk(x, z);
+      Preconditions.checkState(
+        this.tickets.containsKey(key),
+        "The chunk at %s, %s has no ticket!",
+        x,
+        z
+      );
+      count = this.tickets.get(key) - 1;
+      if (count > 0) {
+        this.tickets.put(key, count);
+        return count;
+      }
+      this.tickets.remove(key);
+      final var entry = this.entries.get(key);
+      if (entry != null) {
+        this.idle.putAndMoveToLast(key, entry);
+        this.idleWeight += entry.weight;
+      }
+      evicted = this.evict();
+    }
+    this.unload(evicted);
+    return count;
+  }
+
+  /**
+   * obtains the cached chunk count.
+   *
+   * @return cached chunk count.
+   */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * obtains the total weight of the cached chunks, including the chunks with tickets.
+   *
+   * @return total weight.
+   */
+  public synchronized long weight() {
+    return this.weight;
+  }
+
+  /**
+   * removes the least recently used chunks without tickets until their total weight fits in the max weight.
+   *
+   * @return evicted entries.
+   */
+  @NotNull
+  private List<Entry> evict() {
+    final var evicted = new ArrayList<Entry>();
+    while (this.idleWeight > this.maxWeight && !this.idle.isEmpty()) {
+      final var entry = this.idle.removeFirst();
+      this.entries.remove(entry.key);
+      this.idleWeight -= entry.weight;
+      this.weight -= entry.weight;
+      evicted.add(entry);
+    }
+    return evicted;
+  }
+
+  /**
+   * runs the unloader for the evicted entries.
+   *
+   * @param evicted the evicted to unload.
+   */
+  private void unload(@NotNull final List<Entry> evicted) {
+    for (final var entry : evicted) {
+      this.unloader.unload(
+          Positions.chunkX(entry.key),
+          Positions.chunkZ(entry.key),
+          entry.chunk
+        );
+    }
+  }
+
+  /**
+   * an interface to determine unloaders that save and release the evicted chunks.
+   */
+  @FunctionalInterface
+  public interface Unloader {
+    /**
+     * unloads the chunk.
+     *
+     * @param x the x to unload.
+     * @param z the z to unload.
+     * @param chunk the chunk to unload.
+     */
+    void unload(int x, int z, @NotNull Chunk chunk);
+  }
+
+  /**
+   * a record class that represents cache entries.
+   *
+   * @param chunk the chunk.
+   * @param key the packed position.
+   * @param weight the weight.
+   */
+  private record Entry(@NotNull Chunk chunk, long key, long weight) {}
+}
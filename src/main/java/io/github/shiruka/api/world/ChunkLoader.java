@@ -0,0 +1,263 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.github.shiruka.api.common.Positions;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents asynchronous chunk loaders that back {@link World#chunkAtAsync(int, int)}.
+ * <p>
+ * chunks are read from the source on the I/O executor and generated on the generation executor when the source does
+ * not contain them. concurrent requests for the same chunk share one load.
+ */
+public final class ChunkLoader implements AutoCloseable {
+
+  /**
+   * the generation executor.
+   */
+  @NotNull
+  private final ExecutorService generationExecutor;
+
+  /**
+   * the generator.
+   */
+  @NotNull
+  private final Generator generator;
+
+  /**
+   * the I/O executor.
+   */
+  @NotNull
+  private final ExecutorService ioExecutor;
+
+  /**
+   * the loads in progress by their packed position, guarded by itself.
+   * <p>
+   * a load is removed only after its future completed, so a request in between shares the completed load instead of
+   * starting another one.
+   */
+  private final Long2ObjectMap<CompletableFuture<Chunk>> pending = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * the source.
+   */
+  @NotNull
+  private final Source source;
+
+  /**
+   * ctor.
+   *
+   * @param source the source.
+   * @param generator the generator.
+   * @param ioExecutor the I/O executor.
+   * @param generationExecutor the generation executor.
+   */
+  public ChunkLoader(
+    @NotNull final Source source,
+    @NotNull final Generator generator,
+    @NotNull final ExecutorService ioExecutor,
+    @NotNull final ExecutorService generationExecutor
+  ) {
+    this.source = source;
+    this.generator = generator;
+    this.ioExecutor = ioExecutor;
+    this.generationExecutor = generationExecutor;
+  }
+
+  /**
+   * creates a chunk loader with its own executors.
+   * <p>
+   * the I/O executor has two threads, the generation executor has a thread per available processor except one.
+   *
+   * @param name the name of the world to create.
+   * @param source the source to create.
+   * @param generator the generator to create.
+   *
+   * @return a newly created chunk loader.
+   */
+  @NotNull
+  public static ChunkLoader create(
+    @NotNull final String name,
+    @NotNull final Source source,
+    @NotNull final Generator generator
+  ) {
+    return new ChunkLoader(
+      source,
+      generator,
+      Executors.newFixedThreadPool(
+        2,
+        ChunkLoader.threadFactory("Shiruka Chunk I/O " + name + " #%d")
+      ),
+      Executors.newFixedThreadPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+        ChunkLoader.threadFactory(
+          "Shiruka Chunk Generation " + name + " #%d"
+        )
+      )
+    );
+  }
+
+  /**
+   * creates a daemon thread factory.
+   *
+   * @param nameFormat the name format to create.
+   *
+   * @return a newly created thread factory.
+   */
+  @NotNull
+  private static ThreadFactory threadFactory(
+    @NotNull final String nameFormat
+  ) {
+    return new ThreadFactoryBuilder()
+      .setNameFormat(nameFormat)
+      .setDaemon(true)
+      .build();
+  }
+
+  /**
+   * shuts down the executors.
+   */
+  @Override
+  public void close() {
+    this.ioExecutor.shutdown();
+    this.generationExecutor.shutdown();
+  }
+
+  /**
+   * loads the chunk at the position.
+   * <p>
+   * the future completes on a worker thread, cancelling it does not cancel the load for the other requests.
+   *
+   * @param x the x to load.
+   * @param z the z to load.
+   *
+   * @return chunk at the position.
+   */
+  @NotNull
+  public CompletableFuture<Chunk> load(final int x, final int z) {
+    final var key = Positions.chunk(x, z);
+    final var future = new CompletableFuture<Chunk>();
+    synchronized (this.pending) {
+      final var existing = this.pending.putIfAbsent(key, future);
+      if (existing != null) {
+        return existing.copy();
+      }
+    }
+    try {
+      CompletableFuture
+        .supplyAsync(() -> this.read(x, z), this.ioExecutor)
+        .thenCompose(chunk ->
+          chunk
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() ->
+              CompletableFuture.supplyAsync(
+                () -> this.generator.generate(x, z),
+                this.generationExecutor
+              )
+            )
+        )
+        .whenComplete((chunk, throwable) -> {
+          if (throwable == null) {
+            future.complete(chunk);
+          } else {
+            future.completeExceptionally(throwable);
+          }
+          this.remove(key, future);
+        });
+    } catch (final RejectedExecutionException e) {
+      future.completeExceptionally(e);
+      this.remove(key, future);
+    }
+    return future.copy();
+  }
+
+  /**
+   * obtains the count of the loads in progress.
+   *
+   * @return count of the loads in progress.
+   */
+  public int pendingCount() {
+    synchronized (this.pending) {
+      return this.pending.size();
+    }
+  }
+
+  /**
+   * reads the chunk from the source.
+   *
+   * @param x the x to read.
+   * @param z the z to read.
+   *
+   * @return chunk.
+   */
+  @NotNull
+  private Optional<Chunk> read(final int x, final int z) {
+    try {
+      return this.source.read(x, z);
+    } catch (final IOException e) {
+      throw new CompletionException(new UncheckedIOException(e));
+    }
+  }
+
+  /**
+   * removes the load if it is still in progress for the position.
+   *
+   * @param key the key to remove.
+   * @param future the future to remove.
+   */
+  private void remove(
+    final long key,
+    @NotNull final CompletableFuture<Chunk> future
+  ) {
+    synchronized (this.pending) {
+      this.pending.remove(key, future);
+    }
+  }
+
+  /**
+   * an interface to determine chunk generators.
+   */
+  @FunctionalInterface
+  public interface Generator {
+    /**
+     * generates the chunk at the position.
+     *
+     * @param x the x to generate.
+     * @param z the z to generate.
+     *
+     * @return generated chunk.
+     */
+    @NotNull
+    Chunk generate(int x, int z);
+  }
+
+  /**
+   * an interface to determine chunk sources such as the world storage.
+   */
+  @FunctionalInterface
+  public interface Source {
+    /**
+     * reads the chunk at the position.
+     *
+     * @param x the x to read.
+     * @param z the z to read.
+     *
+     * @return chunk at the position, empty if the source does not contain it.
+     *
+     * @throws IOException if something goes wrong when reading the chunk.
+     */
+    @NotNull
+    Optional<Chunk> read(int x, int z) throws IOException;
+  }
+}
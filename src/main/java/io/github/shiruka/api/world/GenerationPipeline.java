@@ -0,0 +1,627 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.util.concurrent.Striped;
+import io.github.shiruka.api.common.Positions;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents parallel chunk generation pipelines.
+ * <p>
+ * each chunk goes through the noise and the surface stages on its own, then the decoration stage which may write into
+ * the 8 neighbors of the chunk. a decoration starts once its 3x3 neighborhood passed the surface stage and locks the
+ * neighborhood, so overlapping decorations never run at the same time while the others run in parallel. a chunk is
+ * completed once the 9 decorations that may write into it ran.
+ * <p>
+ * the pipeline keeps only the chunks in progress. each chunk records the decorations that it took part in, the chunks
+ * that are not requested are kept once their decorations ran, up to {@link #IDLE_CAPACITY} of the least recently used
+ * ones, so the neighborhoods of nearby requests reuse them. the completed chunks are forgotten, they are meant to be
+ * stored by the caller, such as the {@link ChunkLoader} that uses the pipeline as its generator. a chunk that is
+ * requested again after it was completed is generated again.
+ */
+public final class GenerationPipeline implements ChunkLoader.Generator {
+
+  /**
+   * the max. count of the idle entries that are kept.
+   */
+  private static final int IDLE_CAPACITY = 256;
+
+  /**
+   * the chunk rows of a strip of {@link #generateArea(int, int, int, int, Consumer)}.
+   */
+  private static final int STRIP_ROWS = 32;
+
+  /**
+   * the decorator.
+   */
+  @NotNull
+  private final Decorator decorator;
+
+  /**
+   * the factory that creates empty chunks.
+   */
+  @NotNull
+  private final ChunkLoader.Generator emptyChunks;
+
+  /**
+   * the chunks in progress by their packed position, guards the bookkeeping of the entries.
+   */
+  private final Long2ObjectMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+
+  /**
+   * the packed positions of the idle entries from the least to the most recently used, guarded by {@link #entries}.
+   * <p>
+   * an entry that is used again stays in it until it is evicted, the eviction skips the entries that are not idle.
+   */
+  private final LongLinkedOpenHashSet idleKeys = new LongLinkedOpenHashSet();
+
+  /**
+   * the locks of the decorations.
+   */
+  private final Striped<Lock> locks = Striped.lock(1024);
+
+  /**
+   * the noise stage.
+   */
+  @NotNull
+  private final Stage noise;
+
+  /**
+   * the pool.
+   */
+  @NotNull
+  private final ForkJoinPool pool;
+
+  /**
+   * the surface stage.
+   */
+  @NotNull
+  private final Stage surface;
+
+  /**
+   * ctor.
+   *
+   * @param emptyChunks the factory that creates empty chunks, such as {@link World#generateEmptyChunk(int, int)}.
+   * @param noise the noise stage.
+   * @param surface the surface stage.
+   * @param decorator the decorator.
+   * @param pool the pool.
+   */
+  public GenerationPipeline(
+    @NotNull final ChunkLoader.Generator emptyChunks,
+    @NotNull final Stage noise,
+    @NotNull final Stage surface,
+    @NotNull final Decorator decorator,
+    @NotNull final ForkJoinPool pool
+  ) {
+    this.emptyChunks = emptyChunks;
+    this.noise = noise;
+    this.surface = surface;
+    this.decorator = decorator;
+    this.pool = pool;
+  }
+
+  /**
+   * calculates the bit of the decoration in the claimed decorations of a neighbor.
+   *
+   * @param index the neighbor's {@link Neighborhood#index(int, int)} in the decoration's neighborhood.
+   *
+   * @return bit of the decoration.
+   */
+  private static int bit(final int index) {
+    return 1 << 8 - index;
+  }
+
+  /**
+   * checks if the entry is not requested and none of its claimed decorations is pending.
+   *
+   * @param entry the entry to check.
+   *
+   * @return {@code true} if the entry can be evicted.
+   */
+  private static boolean idle(@NotNull final Entry entry) {
+    return (
+      entry.requests == 0 &&
+      entry.decorations == Integer.bitCount(entry.claimed)
+    );
+  }
+
+  /**
+   * generates the chunk and blocks the caller until it is completed.
+   *
+   * @param x the x to generate.
+   * @param z the z to generate.
+   *
+   * @return generated chunk.
+   */
+  @NotNull
+  @Override
+  public Chunk generate(final int x, final int z) {
+    return this.generateAsync(x, z).join();
+  }
+
+  /**
+   * generates the chunks in the area, strip by strip of chunk rows so only a few strips are kept in memory.
+   * <p>
+   * the neighborhood of a strip is retained while the strip is requested, the border chunks that the next strip shares
+   * with the strip are retained until the next strip is requested. the rest of the border chunks become idle once
+   * their decorations ran, so only the idle chunks are left in the pipeline when the area is generated.
+   *
+   * @param minX the min x to generate, inclusive.
+   * @param minZ the min z to generate, inclusive.
+   * @param maxX the max x to generate, inclusive.
+   * @param maxZ the max z to generate, inclusive.
+   * @param consumer the consumer that receives the completed chunks, such as the world storage.
+   *
+   * @return a future that completes when the area is generated.
+   */
+  @NotNull
+  public CompletableFuture<Void> generateArea(
+    final int minX,
+    final int minZ,
+    final int maxX,
+    final int maxZ,
+    @NotNull final Consumer<Chunk> consumer
+  ) {
+    var future = CompletableFuture.<List<Entry>>completedFuture(List.of());
+    for (
+      var stripZ = minZ;
+      stripZ <= maxZ;
+      stripZ += GenerationPipeline.STRIP_ROWS
+    ) {
+      final var fromZ = stripZ;
+      final var toZ = Math.min(
+        maxZ,
+        stripZ + GenerationPipeline.STRIP_ROWS - 1
+      );
+      future =
+        future.thenCompose(shared -> {
+          final var retained = this.retain(
+              minX - 2,
+              fromZ == minZ ? minZ - 2 : fromZ,
+              maxX + 2,
+              toZ
+            );
+          final var next = this.retain(minX - 2, toZ + 1, maxX + 2, toZ + 2);
+          final var strip = new ArrayList<CompletableFuture<Void>>();
+          for (var z = fromZ; z <= toZ; z++) {
+            for (var x = minX; x <= maxX; x++) {
+              strip.add(this.generateAsync(x, z).thenAccept(consumer));
+            }
+          }
+          this.release(shared);
+          this.release(retained);
+          if (toZ == maxZ) {
+            this.release(next);
+            return CompletableFuture
+              .allOf(strip.toArray(CompletableFuture[]::new))
+              .thenApply(ignored -> List.<Entry>of());
+          }
+          return CompletableFuture
+            .allOf(strip.toArray(CompletableFuture[]::new))
+            .whenComplete((ignored, throwable) -> {
+              if (throwable != null) {
+                this.release(next);
+              }
+            })
+            .thenApply(ignored -> next);
+        });
+    }
+    return future.thenAccept(ignored -> {});
+  }
+
+  /**
+   * generates the chunk.
+   *
+   * @param x the x to generate.
+   * @param z the z to generate.
+   *
+   * @return a future that completes with the chunk once the decorations of its neighborhood ran.
+   */
+  @NotNull
+  public CompletableFuture<Chunk> generateAsync(final int x, final int z) {
+    final var decorations = new ArrayList<Decoration>(9);
+    final Entry entry;
+    synchronized (this.entries) {
+      entry = this.entry(x, z);
+      entry.requests++;
+      for (var dx = -1; dx <= 1; dx++) {
+        for (var dz = -1; dz <= 1; dz++) {
+          final var bit = GenerationPipeline.bit(Neighborhood.index(-dx, -dz));
+          if ((entry.claimed & bit) == 0) {
+            decorations.add(this.claim(x + dx, z + dz));
+          }
+        }
+      }
+    }
+    decorations.forEach(this::decorate);
+    return entry.completed;
+  }
+
+  /**
+   * claims the decoration of the chunk for the entries of its neighborhood that did not take part in it yet.
+   * <p>
+   * the absent neighbors are created, the neighbors that already took part in the decoration are replaced by copies
+   * which are discarded after the decoration.
+   *
+   * @param x the x to claim.
+   * @param z the z to claim.
+   *
+   * @return claimed decoration.
+   */
+  @NotNull
+  private Decoration claim(final int x, final int z) {
+    final var participants = new Entry[9];
+    final var surfaced = new CompletableFuture<?>[9];
+    final var keys = new LongArrayList(9);
+    for (var dx = -1; dx <= 1; dx++) {
+      for (var dz = -1; dz <= 1; dz++) {
+        final var index = Neighborhood.index(dx, dz);
+        final var bit = GenerationPipeline.bit(index);
+        final var entry = this.entry(x + dx, z + dz);
+        if ((entry.claimed & bit) == 0) {
+          entry.claimed |= bit;
+          participants[index] = entry;
+          surfaced[index] = entry.surfaced;
+        } else {
+          surfaced[index] = this.surfaced(x + dx, z + dz);
+        }
+        keys.add(Positions.chunk(x + dx, z + dz));
+      }
+    }
+    return new Decoration(participants, surfaced, keys);
+  }
+
+  /**
+   * runs the decoration once its neighborhood passed the surface stage.
+   *
+   * @param decoration the decoration to run.
+   */
+  private void decorate(@NotNull final Decoration decoration) {
+    CompletableFuture
+      .allOf(decoration.surfaced)
+      .thenRunAsync(
+        () -> {
+          final var chunks = new Chunk[9];
+          for (var index = 0; index < chunks.length; index++) {
+            chunks[index] = (Chunk) decoration.surfaced[index].join();
+          }
+          final var locks = this.locks.bulkGet(decoration.keys);
+          locks.forEach(Lock::lock);
+          try {
+            this.decorator.decorate(new Neighborhood(chunks));
+          } finally {
+            locks.forEach(Lock::unlock);
+          }
+          this.decorated(decoration.participants, chunks);
+        },
+        this.pool
+      )
+      .exceptionally(throwable -> {
+        this.failed(decoration.participants, throwable);
+        return null;
+      });
+  }
+
+  /**
+   * counts the decoration for its participants, completes the participants that took part in their last decoration
+   * and keeps the idle ones.
+   *
+   * @param participants the participants to count.
+   * @param chunks the chunks of the participants.
+   */
+  private void decorated(
+    @NotNull final Entry[] participants,
+    @NotNull final Chunk[] chunks
+  ) {
+    final var completed = new boolean[participants.length];
+    synchronized (this.entries) {
+      for (var index = 0; index < participants.length; index++) {
+        final var entry = participants[index];
+        if (entry == null) {
+          continue;
+        }
+        entry.decorations++;
+        if (entry.decorations == 9) {
+          this.remove(entry);
+          completed[index] = true;
+        } else if (GenerationPipeline.idle(entry)) {
+          this.keepIdle(entry);
+        }
+      }
+    }
+    for (var index = 0; index < participants.length; index++) {
+      if (completed[index]) {
+        participants[index].completed.complete(chunks[index]);
+      }
+    }
+  }
+
+  /**
+   * gets the entry of the chunk, starts its noise and surface stages if it is absent, marks it as the most recently
+   * used if it is idle.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return entry of the chunk.
+   */
+  @NotNull
+  private Entry entry(final int x, final int z) {
+    final var key = Positions.chunk(x, z);
+    var entry = this.entries.get(key);
+    if (entry == null) {
+      entry = new Entry(key, this.surfaced(x, z));
+      this.entries.put(key, entry);
+    } else if (this.idleKeys.remove(key)) {
+      this.idleKeys.add(key);
+    }
+    return entry;
+  }
+
+  /**
+   * removes the participants of the failed decoration so a retry generates them again and fails their futures.
+   *
+   * @param participants the participants to fail.
+   * @param throwable the throwable to fail.
+   */
+  private void failed(
+    @NotNull final Entry[] participants,
+    @NotNull final Throwable throwable
+  ) {
+    synchronized (this.entries) {
+      for (final var entry : participants) {
+        if (entry != null) {
+          this.remove(entry);
+        }
+      }
+    }
+    for (final var entry : participants) {
+      if (entry != null) {
+        entry.completed.completeExceptionally(throwable);
+      }
+    }
+  }
+
+  /**
+   * keeps the idle entry as the most recently used one, evicts the least recently used idle entries beyond
+   * {@link #IDLE_CAPACITY}.
+   *
+   * @param entry the entry to keep.
+   */
+  private void keepIdle(@NotNull final Entry entry) {
+    this.idleKeys.addAndMoveToLast(entry.key);
+    while (this.idleKeys.size() > GenerationPipeline.IDLE_CAPACITY) {
+      final var key = this.idleKeys.removeFirstLong();
+      final var evicted = this.entries.get(key);
+      if (evicted != null && GenerationPipeline.idle(evicted)) {
+        this.entries.remove(key);
+      }
+    }
+  }
+
+  /**
+   * releases the retained entries, keeps the idle ones.
+   *
+   * @param retained the retained to release.
+   */
+  private void release(@NotNull final Collection<Entry> retained) {
+    synchronized (this.entries) {
+      for (final var entry : retained) {
+        entry.requests--;
+        if (GenerationPipeline.idle(entry)) {
+          this.keepIdle(entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * removes the entry.
+   *
+   * @param entry the entry to remove.
+   */
+  private void remove(@NotNull final Entry entry) {
+    if (this.entries.remove(entry.key, entry)) {
+      this.idleKeys.remove(entry.key);
+    }
+  }
+
+  /**
+   * retains the entries of the area until they are released, creates the absent ones.
+   *
+   * @param minX the min x to retain, inclusive.
+   * @param minZ the min z to retain, inclusive.
+   * @param maxX the max x to retain, inclusive.
+   * @param maxZ the max z to retain, inclusive.
+   *
+   * @return retained entries.
+   */
+  @NotNull
+  private List<Entry> retain(
+    final int minX,
+    final int minZ,
+    final int maxX,
+    final int maxZ
+  ) {
+    final var retained = new ArrayList<Entry>();
+    synchronized (this.entries) {
+      for (var z = minZ; z <= maxZ; z++) {
+        for (var x = minX; x <= maxX; x++) {
+          final var entry = this.entry(x, z);
+          entry.requests++;
+          retained.add(entry);
+        }
+      }
+    }
+    return retained;
+  }
+
+  /**
+   * runs the noise and the surface stages of the chunk.
+   *
+   * @param x the x to run.
+   * @param z the z to run.
+   *
+   * @return a future that completes once the chunk passed the surface stage.
+   */
+  @NotNull
+  private CompletableFuture<Chunk> surfaced(final int x, final int z) {
+    return CompletableFuture
+      .supplyAsync(() -> this.emptyChunks.generate(x, z), this.pool)
+      .thenApplyAsync(
+        chunk -> {
+          this.noise.apply(chunk);
+          this.surface.apply(chunk);
+          return chunk;
+        },
+        this.pool
+      );
+  }
+
+  /**
+   * an interface to determine decorators that may write into the neighbors of the chunk, such as trees.
+   */
+  @FunctionalInterface
+  public interface Decorator {
+    /**
+     * decorates the center of the neighborhood.
+     *
+     * @param neighborhood the neighborhood to decorate.
+     */
+    void decorate(@NotNull Neighborhood neighborhood);
+  }
+
+  /**
+   * an interface to determine stages that write only into their chunk.
+   */
+  @FunctionalInterface
+  public interface Stage {
+    /**
+     * applies the stage to the chunk.
+     *
+     * @param chunk the chunk to apply.
+     */
+    void apply(@NotNull Chunk chunk);
+  }
+
+  /**
+   * a record class that represents 3x3 chunk neighborhoods of decorations.
+   *
+   * @param chunks the chunks.
+   */
+  public record Neighborhood(@NotNull Chunk[] chunks) {
+    /**
+     * calculates the index of the neighbor.
+     *
+     * @param dx the dx to calculate.
+     * @param dz the dz to calculate.
+     *
+     * @return index of the neighbor.
+     */
+    private static int index(final int dx, final int dz) {
+      return (dx + 1) * 3 + dz + 1;
+    }
+
+    /**
+     * obtains the chunk that is decorated.
+     *
+     * @return chunk that is decorated.
+     */
+    @NotNull
+    public Chunk center() {
+      return this.chunk(0, 0);
+    }
+
+    /**
+     * gets the neighbor.
+     *
+     * @param dx the dx between -1 and 1 to get.
+     * @param dz the dz between -1 and 1 to get.
+     *
+     * @return neighbor.
+     */
+    @NotNull
+    public Chunk chunk(final int dx, final int dz) {
+      return this.chunks[Neighborhood.index(dx, dz)];
+    }
+  }
+
+  /**
+   * a record class that represents claimed decorations.
+   *
+   * @param participants the entries that take part in the decoration by their {@link Neighborhood#index(int, int)},
+   *   {@code null} for the copies.
+   * @param surfaced the futures of the neighborhood's chunks by their {@link Neighborhood#index(int, int)}.
+   * @param keys the packed positions of the neighborhood.
+   */
+  private record Decoration(
+    @NotNull Entry[] participants,
+    @NotNull CompletableFuture<?>[] surfaced,
+    @NotNull LongArrayList keys
+  ) {}
+
+  /**
+   * a class that represents chunks in progress.
+   * <p>
+   * the counters are guarded by {@link #entries}.
+   */
+  private static final class Entry {
+
+    /**
+     * the future that completes once the decorations of the neighborhood ran.
+     */
+    private final CompletableFuture<Chunk> completed = new CompletableFuture<>();
+
+    /**
+     * the packed position.
+     */
+    private final long key;
+
+    /**
+     * the future that completes once the chunk passed the surface stage.
+     */
+    @NotNull
+    private final CompletableFuture<Chunk> surfaced;
+
+    /**
+     * the decorations that the entry takes part in, one bit per {@link Neighborhood#index(int, int)} of the
+     * decoration's center relative to the entry.
+     */
+    private int claimed;
+
+    /**
+     * the decorations that ran.
+     */
+    private int decorations;
+
+    /**
+     * the requests and the retains that keep the entry until it is completed.
+     */
+    private int requests;
+
+    /**
+     * ctor.
+     *
+     * @param key the key.
+     * @param surfaced the surfaced.
+     */
+    private Entry(
+      final long key,
+      @NotNull final CompletableFuture<Chunk> surfaced
+    ) {
+      this.key = key;
+      this.surfaced = surfaced;
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package io.github.shiruka.api.world;
+
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * a class that represents heightmaps of chunks.
+ * <p>
+ * the y of the highest non-air block of each column is packed into a {@code short[256]}, so the highest block is
+ * looked up in constant time. the heightmap is updated incrementally when the blocks of the chunk change, only the
+ * removal of the highest block of a column scans down the column and skips the empty sections.
+ */
+public final class Heightmap {
+
+  /**
+   * the height of the columns that contain only air.
+   */
+  public static final int EMPTY = Short.MIN_VALUE;
+
+  /**
+   * the heights.
+   */
+  private final short[] heights = new short[Chunk.Section.SIZE *
+    Chunk.Section.SIZE];
+
+  /**
+   * ctor.
+   */
+  private Heightmap() {
+    Arrays.fill(this.heights, (short) Heightmap.EMPTY);
+  }
+
+  /**
+   * creates a heightmap of a chunk that contains only air.
+   *
+   * @return a newly created heightmap.
+   */
+  @NotNull
+  public static Heightmap empty() {
+    return new Heightmap();
+  }
+
+  /**
+   * creates a heightmap of the chunk by scanning its columns.
+   *
+   * @param chunk the chunk to create.
+   *
+   * @return a newly created heightmap.
+   */
+  @NotNull
+  public static Heightmap of(@NotNull final Chunk chunk) {
+    final var heightmap = new Heightmap();
+    for (var x = 0; x < Chunk.Section.SIZE; x++) {
+      for (var z = 0; z < Chunk.Section.SIZE; z++) {
+        heightmap.heights[Heightmap.index(x, z)] =
+          (short) Heightmap.scan(chunk, x, z, chunk.maxSectionY() << 4 | 15);
+      }
+    }
+    return heightmap;
+  }
+
+  /**
+   * calculates the index of the column.
+   *
+   * @param x the x to calculate.
+   * @param z the z to calculate.
+   *
+   * @return index of the column.
+   */
+  private static int index(final int x, final int z) {
+    return (z & 15) << 4 | x & 15;
+  }
+
+  /**
+   * scans the column down from the y to find the highest non-air block.
+   *
+   * @param chunk the chunk to scan.
+   * @param x the x to scan.
+   * @param z the z to scan.
+   * @param fromY the from y to scan, inclusive.
+   *
+   * @return y of the highest non-air block, {@link #EMPTY} if the column contains only air below the y.
+   */
+  private static int scan(
+    @NotNull final Chunk chunk,
+    final int x,
+    final int z,
+    final int fromY
+  ) {
+    final var minSectionY = chunk.minSectionY();
+    for (
+      var sectionY = Math.min(fromY >> 4, chunk.maxSectionY());
+      sectionY >= minSectionY;
+      sectionY--
+    ) {
+      final var section = chunk.section(sectionY);
+      if (section.isEmpty()) {
+        continue;
+      }
+      final var top = sectionY == fromY >> 4 ? fromY & 15 : 15;
+      for (var y = top; y >= 0; y--) {
+        if (section.get(x, y, z) != Chunk.Section.AIR) {
+          return sectionY << 4 | y;
+        }
+      }
+    }
+    return Heightmap.EMPTY;
+  }
+
+  /**
+   * gets the y of the highest non-air block of the column.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return y of the highest non-air block, {@link #EMPTY} if the column contains only air.
+   */
+  public int highest(
+    @Range(from = 0, to = 15) final int x,
+    @Range(from = 0, to = 15) final int z
+  ) {
+    return this.heights[Heightmap.index(x, z)];
+  }
+
+  /**
+   * updates the column once after several blocks of the column are set to different states.
+   *
+   * @param chunk the chunk to update.
+   * @param x the x to update.
+   * @param z the z to update.
+   * @param maxSolidY the max y that is set to a non-air state, {@link #EMPTY} if the blocks are set to air only.
+   */
+  public void refreshColumn(
+    @NotNull final Chunk chunk,
+    @Range(from = 0, to = 15) final int x,
+    @Range(from = 0, to = 15) final int z,
+    final int maxSolidY
+  ) {
+    final var index = Heightmap.index(x, z);
+    final int current = this.heights[index];
+    if (maxSolidY != Heightmap.EMPTY && maxSolidY >= current) {
+      this.heights[index] = (short) maxSolidY;
+    } else if (
+      current != Heightmap.EMPTY &&
+      chunk.section(current >> 4).get(x, current & 15, z) == Chunk.Section.AIR
+    ) {
+      this.heights[index] = (short) Heightmap.scan(chunk, x, z, current - 1);
+    }
+  }
+
+  /**
+   * updates the column after the block is set to the state.
+   *
+   * @param chunk the chunk to update.
+   * @param x the x to update.
+   * @param y the y to update.
+   * @param z the z to update.
+   * @param state the state to update.
+   */
+  public void update(
+    @NotNull final Chunk chunk,
+    @Range(from = 0, to = 15) final int x,
+    final int y,
+    @Range(from = 0, to = 15) final int z,
+    final int state
+  ) {
+    this.updateColumn(chunk, x, z, y, y, state);
+  }
+
+  /**
+   * updates the column after the blocks between the min y and the max y are set to the state.
+   *
+   * @param chunk the chunk to update.
+   * @param x the x to update.
+   * @param z the z to update.
+   * @param minY the min y to update, inclusive.
+   * @param maxY the max y to update, inclusive.
+   * @param state the state to update.
+   */
+  public void updateColumn(
+    @NotNull final Chunk chunk,
+    @Range(from = 0, to = 15) final int x,
+    @Range(from = 0, to = 15) final int z,
+    final int minY,
+    final int maxY,
+    final int state
+  ) {
+    final var index = Heightmap.index(x, z);
+    final int current = this.heights[index];
+    if (state != Chunk.Section.AIR) {
+      if (maxY > current) {
+        this.heights[index] = (short) maxY;
+      }
+    } else if (
+      current != Heightmap.EMPTY && current >= minY && current <= maxY
+    ) {
+      this.heights[index] = (short) Heightmap.scan(chunk, x, z, minY - 1);
+    }
+  }
+}
@@ -0,0 +1,495 @@
+package io.github.shiruka.api.world;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a class that represents region files which store 32x32 chunks.
+ * <p>
+ * the file starts with a sector allocation table and a timestamp table of 4 KiB each, both are memory-mapped. each
+ * chunk is stored in consecutive 4 KiB sectors as its length, its compression type and its payload. chunk payloads are
+ * read into heap buffers with positional reads. batched writes take the first free run of sectors while the chunk's
+ * previous sectors are still in use, so a crash during the write leaves the previous data intact. the previous sectors
+ * are released after the data and the sector allocation table are forced to the disk.
+ */
+public final class RegionFile implements Closeable {
+
+  /**
+   * the chunk count of an edge of the region.
+   */
+  public static final int SIZE = 32;
+
+  /**
+   * the chunk count of the region.
+   */
+  public static final int CHUNKS = RegionFile.SIZE * RegionFile.SIZE;
+
+  /**
+   * the sector size.
+   */
+  public static final int SECTOR_BYTES = 4096;
+
+  /**
+   * the compression type of the deflated chunks.
+   */
+  private static final byte DEFLATE = 2;
+
+  /**
+   * the header size in sectors.
+   */
+  private static final int HEADER_SECTORS = 2;
+
+  /**
+   * the max sector count of a chunk.
+   */
+  private static final int MAX_SECTORS = 255;
+
+  /**
+   * the compression type of the uncompressed chunks.
+   */
+  private static final byte NONE = 3;
+
+  /**
+   * the record header size, the length and the compression type.
+   */
+  private static final int RECORD_HEADER_BYTES = Integer.BYTES + 1;
+
+  /**
+   * the channel.
+   */
+  @NotNull
+  private final FileChannel channel;
+
+  /**
+   * the header that contains the sector allocation table and the timestamp table.
+   */
+  @NotNull
+  private final MappedByteBuffer header;
+
+  /**
+   * the used sectors.
+   */
+  @NotNull
+  private final BitSet usedSectors = new BitSet();
+
+  /**
+   * ctor.
+   *
+   * @param channel the channel.
+   *
+   * @throws IOException if something goes wrong when mapping the header.
+   */
+  private RegionFile(@NotNull final FileChannel channel) throws IOException {
+    this.channel = channel;
+    final var headerBytes = RegionFile.HEADER_SECTORS * RegionFile.SECTOR_BYTES;
+    if (channel.size() < headerBytes) {
+      channel.write(ByteBuffer.allocate(headerBytes), 0L);
+    }
+    this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0L, headerBytes);
+    this.usedSectors.set(0, RegionFile.HEADER_SECTORS);
+    for (var index = 0; index < RegionFile.CHUNKS; index++) {
+      final var location = this.header.getInt(index * Integer.BYTES);
+      if (location != 0) {
+        final var offset = location >>> 8;
+        this.usedSectors.set(offset, offset + (location & 0xFF));
+      }
+    }
+  }
+
+  /**
+   * calculates the index of the chunk in the region.
+   *
+   * @param x the x of the chunk to calculate.
+   * @param z the z of the chunk to calculate.
+   *
+   * @return index of the chunk.
+   */
+  public static int index(final int x, final int z) {
+    return (z & 31) << 5 | x & 31;
+  }
+
+  /**
+   * opens the region file, creates it if it does not exist.
+   *
+   * @param path the path to open.
+   *
+   * @return opened region file.
+   *
+   * @throws IOException if something goes wrong when opening the file.
+   */
+  @NotNull
+  public static RegionFile open(@NotNull final Path path) throws IOException {
+    final var channel = FileChannel.open(
+      path,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE
+    );
+    try {
+      return new RegionFile(channel);
+    } catch (final IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * compresses the chunk data into a record that is padded to its sectors.
+   *
+   * @param deflater the deflater to compress.
+   * @param data the data to compress.
+   *
+   * @return compressed record.
+   */
+  @NotNull
+  private static ByteBuffer record(
+    @NotNull final Deflater deflater,
+    @NotNull final ByteBuffer data
+  ) {
+    deflater.reset();
+    deflater.setInput(data.duplicate());
+    deflater.finish();
+    var compressed = ByteBuffer.allocate(
+      RegionFile.RECORD_HEADER_BYTES + Math.max(64, data.remaining() / 2)
+    );
+    compressed.position(RegionFile.RECORD_HEADER_BYTES);
+    while (!deflater.finished()) {
+      if (!compressed.hasRemaining()) {
+        compressed =
+          ByteBuffer
+            .allocate(compressed.capacity() * 2)
+            .put(compressed.flip());
+      }
+      deflater.deflate(compressed);
+    }
+    final ByteBuffer record;
+    final byte type;
+    if (
+      compressed.position() - RegionFile.RECORD_HEADER_BYTES < data.remaining()
+    ) {
+      record = compressed;
+      type = RegionFile.DEFLATE;
+    } else {
+      record =
+        ByteBuffer
+          .allocate(RegionFile.RECORD_HEADER_BYTES + data.remaining())
+          .position(RegionFile.RECORD_HEADER_BYTES)
+          .put(data.duplicate());
+      type = RegionFile.NONE;
+    }
+    final var length = record.position() - Integer.BYTES;
+    record.putInt(0, length).put(Integer.BYTES, type);
+    final var sectors = RegionFile.sectors(record.position());
+    return ByteBuffer
+      .allocate(sectors * RegionFile.SECTOR_BYTES)
+      .put(record.flip())
+      .clear();
+  }
+
+  /**
+   * calculates the sector count of the bytes.
+   *
+   * @param bytes the bytes to calculate.
+   *
+   * @return sector count.
+   */
+  private static int sectors(final int bytes) {
+    return (bytes + RegionFile.SECTOR_BYTES - 1) / RegionFile.SECTOR_BYTES;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    this.header.force();
+    this.channel.close();
+  }
+
+  /**
+   * checks if the region contains the chunk.
+   *
+   * @param x the x of the chunk to check.
+   * @param z the z of the chunk to check.
+   *
+   * @return {@code true} if the region contains the chunk.
+   */
+  public synchronized boolean contains(final int x, final int z) {
+    return this.header.getInt(RegionFile.index(x, z) * Integer.BYTES) != 0;
+  }
+
+  /**
+   * reads the chunk data.
+   *
+   * @param x the x of the chunk to read.
+   * @param z the z of the chunk to read.
+   *
+   * @return read-only decompressed chunk data, {@code null} if the region does not contain the chunk.
+   *
+   * @throws IOException if something goes wrong when reading the chunk.
+   */
+  @Nullable
+  public synchronized ByteBuffer read(final int x, final int z)
+    throws IOException {
+    final var location =
+      this.header.getInt(RegionFile.index(x, z) * Integer.BYTES);
+    if (location == 0) {
+      return null;
+    }
+    final var position = (long) (location >>> 8) * RegionFile.SECTOR_BYTES;
+    final var size = Math.min(
+      (long) (location & 0xFF) * RegionFile.SECTOR_BYTES,
+      this.channel.size() - position
+    );
+    final var recordHeader = ByteBuffer.allocate(RegionFile.RECORD_HEADER_BYTES);
+    this.readFully(recordHeader, position, x, z);
+    final var length = recordHeader.getInt(0);
+    if (length <= 0 || length > size - Integer.BYTES) {
+      throw new IOException(
+        "Invalid length %s of the chunk %s, %s!".formatted(length, x, z)
+      );
+    }
+    final var type = recordHeader.get(Integer.BYTES);
+    if (type != RegionFile.NONE && type != RegionFile.DEFLATE) {
+      throw new IOException(
+        "Unknown compression type %s of the chunk %s, %s!".formatted(type, x, z)
+      );
+    }
+    final var payload = ByteBuffer.allocate(length - 1);
+    this.readFully(payload, position + RegionFile.RECORD_HEADER_BYTES, x, z);
+    payload.flip();
+    if (type == RegionFile.NONE) {
+      return payload.asReadOnlyBuffer();
+    }
+    final var inflater = new Inflater();
+    try {
+      inflater.setInput(payload);
+      var data = ByteBuffer.allocate(Math.max(256, length * 4));
+      while (!inflater.finished()) {
+        if (!data.hasRemaining()) {
+          data = ByteBuffer.allocate(data.capacity() * 2).put(data.flip());
+        }
+        if (inflater.inflate(data) == 0 && inflater.needsInput()) {
+          throw new IOException(
+            "Truncated data of the chunk %s, %s!".formatted(x, z)
+          );
+        }
+      }
+      return data.flip().asReadOnlyBuffer();
+    } catch (final DataFormatException e) {
+      throw new IOException(e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * writes the chunks in one batch.
+   * <p>
+   * the data of the chunks are written in the order of their sectors and forced to the disk before the sector
+   * allocation table is updated, the previous sectors of the chunks are released after the table is forced.
+   *
+   * @param chunks the chunks to write, their decompressed data by their {@link #index(int, int)}.
+   *
+   * @throws IOException if something goes wrong when writing the chunks.
+   */
+  public synchronized void write(
+    @NotNull final Int2ObjectMap<ByteBuffer> chunks
+  ) throws IOException {
+    if (chunks.isEmpty()) {
+      return;
+    }
+    final var writes = new ArrayList<Write>(chunks.size());
+    final var deflater = new Deflater();
+    try {
+      for (final var entry : chunks.int2ObjectEntrySet()) {
+        final var record = RegionFile.record(deflater, entry.getValue());
+        final var sectors = record.remaining() / RegionFile.SECTOR_BYTES;
+        if (sectors > RegionFile.MAX_SECTORS) {
+          throw new IOException(
+            "The chunk %s is too large, %s bytes!".formatted(
+                entry.getIntKey(),
+                record.remaining()
+              )
+          );
+        }
+        writes.add(new Write(entry.getIntKey(), record, sectors));
+      }
+    } finally {
+      deflater.end();
+    }
+    for (final var write : writes) {
+      write.offset = this.allocate(write.sectors);
+    }
+    writes.sort(Comparator.comparingInt(write -> write.offset));
+    try {
+      this.writeRuns(writes);
+      this.channel.force(false);
+    } catch (final IOException e) {
+      for (final var write : writes) {
+        this.usedSectors.clear(write.offset, write.offset + write.sectors);
+      }
+      throw e;
+    }
+    final var previousLocations = new int[writes.size()];
+    for (var index = 0; index < writes.size(); index++) {
+      previousLocations[index] =
+        this.header.getInt(writes.get(index).index * Integer.BYTES);
+    }
+    final var timestamp = (int) (System.currentTimeMillis() / 1000L);
+    for (final var write : writes) {
+      this.header.putInt(
+          write.index * Integer.BYTES,
+          write.offset << 8 | write.sectors
+        );
+      this.header.putInt(
+          RegionFile.SECTOR_BYTES + write.index * Integer.BYTES,
+          timestamp
+        );
+    }
+    this.header.force();
+    for (final var location : previousLocations) {
+      if (location != 0) {
+        final var offset = location >>> 8;
+        this.usedSectors.clear(offset, offset + (location & 0xFF));
+      }
+    }
+  }
+
+  /**
+   * allocates the first free run of the sectors.
+   *
+   * @param sectors the sectors to allocate.
+   *
+   * @return offset of the allocated sectors.
+   */
+  private int allocate(final int sectors) {
+    var offset = this.usedSectors.nextClearBit(0);
+    while (true) {
+      final var next = this.usedSectors.nextSetBit(offset);
+      if (next == -1 || next - offset >= sectors) {
+        this.usedSectors.set(offset, offset + sectors);
+        return offset;
+      }
+      offset = this.usedSectors.nextClearBit(next);
+    }
+  }
+
+  /**
+   * reads the bytes at the position until the buffer is full.
+   *
+   * @param buffer the buffer to read.
+   * @param position the position to read.
+   * @param x the x of the chunk to read.
+   * @param z the z of the chunk to read.
+   *
+   * @throws IOException if something goes wrong when reading the bytes or the file ends before the buffer is full.
+   */
+  private void readFully(
+    @NotNull final ByteBuffer buffer,
+    final long position,
+    final int x,
+    final int z
+  ) throws IOException {
+    while (buffer.hasRemaining()) {
+      final var read =
+        this.channel.read(buffer, position + buffer.position());
+      if (read < 0) {
+        throw new IOException(
+          "Truncated data of the chunk %s, %s!".formatted(x, z)
+        );
+      }
+    }
+  }
+
+  /**
+   * writes the sorted records, the records of consecutive sectors are written with one gathering write.
+   *
+   * @param writes the writes to write.
+   *
+   * @throws IOException if something goes wrong when writing the records.
+   */
+  private void writeRuns(@NotNull final List<Write> writes)
+    throws IOException {
+    var start = 0;
+    while (start < writes.size()) {
+      var end = start + 1;
+      while (
+        end < writes.size() &&
+        writes.get(end).offset ==
+        writes.get(end - 1).offset + writes.get(end - 1).sectors
+      ) {
+        end++;
+      }
+      final var buffers = new ByteBuffer[end - start];
+      var remaining = 0L;
+      for (var index = start; index < end; index++) {
+        buffers[index - start] = writes.get(index).record;
+        remaining += writes.get(index).record.remaining();
+      }
+      this.channel.position(
+          (long) writes.get(start).offset * RegionFile.SECTOR_BYTES
+        );
+      while (remaining > 0L) {
+        remaining -= this.channel.write(buffers);
+      }
+      start = end;
+    }
+  }
+
+  /**
+   * a class that represents pending writes of a batch.
+   */
+  private static final class Write {
+
+    /**
+     * the index.
+     */
+    private final int index;
+
+    /**
+     * the record.
+     */
+    @NotNull
+    private final ByteBuffer record;
+
+    /**
+     * the sectors.
+     */
+    private final int sectors;
+
+    /**
+     * the offset.
+     */
+    private int offset;
+
+    /**
+     * ctor.
+     *
+     * @param index the index.
+     * @param record the record.
+     * @param sectors the sectors.
+     */
+    private Write(
+      final int index,
+      @NotNull final ByteBuffer record,
+      final int sectors
+    ) {
+      this.index = index;
+      this.record = record;
+      this.sectors = sectors;
+    }
+  }
+}
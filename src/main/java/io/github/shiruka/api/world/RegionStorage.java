@@ -0,0 +1,238 @@
+package io.github.shiruka.api.world;
+
+import io.github.shiruka.api.common.Positions;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectRBTreeMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectSortedMap;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents chunk storages which persist chunks in {@link RegionFile}s.
+ * <p>
+ * written chunks are encoded at once and buffered per region, {@link #flush()} writes the buffered chunks of each
+ * region as one batch. buffered chunks are read back before they are flushed.
+ */
+public final class RegionStorage implements ChunkLoader.Source, Closeable {
+
+  /**
+   * the codec.
+   */
+  @NotNull
+  private final Codec codec;
+
+  /**
+   * the directory.
+   */
+  @NotNull
+  private final Path directory;
+
+  /**
+   * the flush lock.
+   */
+  private final Object flushLock = new Object();
+
+  /**
+   * the buffered chunks by their region's packed position.
+   */
+  private final Long2ObjectSortedMap<Int2ObjectMap<ByteBuffer>> pending = new Long2ObjectRBTreeMap<>();
+
+  /**
+   * the regions lock, which guards the replacements of {@link #regions}.
+   */
+  private final Object regionsLock = new Object();
+
+  /**
+   * the open region files snapshot by their packed position.
+   * <p>
+   * opening a region replaces the snapshot, so the lookups never lock.
+   */
+  @NotNull
+  private volatile Long2ObjectMap<RegionFile> regions = Long2ObjectMaps.emptyMap();
+
+  /**
+   * ctor.
+   *
+   * @param directory the directory.
+   * @param codec the codec.
+   */
+  public RegionStorage(
+    @NotNull final Path directory,
+    @NotNull final Codec codec
+  ) {
+    this.directory = directory;
+    this.codec = codec;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.flush();
+    final Long2ObjectMap<RegionFile> regions;
+    synchronized (this.regionsLock) {
+      regions = this.regions;
+      this.regions = Long2ObjectMaps.emptyMap();
+    }
+    IOException exception = null;
+    for (final var region : regions.values()) {
+      try {
+        region.close();
+      } catch (final IOException e) {
+        if (exception == null) {
+          exception = e;
+        } else {
+          exception.addSuppressed(e);
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  /**
+   * writes the buffered chunks, one batch per region.
+   * <p>
+   * the chunks stay buffered until their batch is written, the chunks that are written again in the meantime stay
+   * buffered for the next flush. concurrent flushes run one after another, so a batch is never written twice.
+   *
+   * @throws IOException if something goes wrong when writing the chunks.
+   */
+  public void flush() throws IOException {
+    synchronized (this.flushLock) {
+      final var batches = new Long2ObjectRBTreeMap<Int2ObjectMap<ByteBuffer>>();
+      synchronized (this.pending) {
+        for (final var entry : this.pending.long2ObjectEntrySet()) {
+          batches.put(
+            entry.getLongKey(),
+            new Int2ObjectOpenHashMap<>(entry.getValue())
+          );
+        }
+      }
+      for (final var entry : batches.long2ObjectEntrySet()) {
+        final var key = entry.getLongKey();
+        final var batch = entry.getValue();
+        this.region(Positions.chunkX(key), Positions.chunkZ(key))
+          .write(batch);
+        synchronized (this.pending) {
+          final var buffered = this.pending.get(key);
+          if (buffered == null) {
+            continue;
+          }
+          for (final var written : batch.int2ObjectEntrySet()) {
+            buffered.remove(written.getIntKey(), written.getValue());
+          }
+          if (buffered.isEmpty()) {
+            this.pending.remove(key);
+          }
+        }
+      }
+    }
+  }
+
+  @NotNull
+  @Override
+  public Optional<Chunk> read(final int x, final int z) throws IOException {
+    final var regionX = x >> 5;
+    final var regionZ = z >> 5;
+    final var index = RegionFile.index(x, z);
+    synchronized (this.pending) {
+      final var batch = this.pending.get(Positions.chunk(regionX, regionZ));
+      if (batch != null && batch.containsKey(index)) {
+        return Optional.of(
+          this.codec.decode(x, z, batch.get(index).asReadOnlyBuffer())
+        );
+      }
+    }
+    final var data = this.region(regionX, regionZ).read(x, z);
+    if (data == null) {
+      return Optional.empty();
+    }
+    return Optional.of(this.codec.decode(x, z, data));
+  }
+
+  /**
+   * encodes the chunk and buffers it until the next {@link #flush()}.
+   *
+   * @param chunk the chunk to write.
+   */
+  public void write(@NotNull final Chunk chunk) {
+    final var data = this.codec.encode(chunk);
+    final var key = Positions.chunk(chunk.x() >> 5, chunk.z() >> 5);
+    synchronized (this.pending) {
+      this.pending.computeIfAbsent(key, k -> new Int2ObjectOpenHashMap<>())
+        .put(RegionFile.index(chunk.x(), chunk.z()), data);
+    }
+  }
+
+  /**
+   * gets the region file at the region position, opens it if it is not open.
+   *
+   * @param regionX the region x to get.
+   * @param regionZ the region z to get.
+   *
+   * @return region file.
+   *
+   * @throws IOException if something goes wrong when opening the region file.
+   */
+  @NotNull
+  private RegionFile region(final int regionX, final int regionZ)
+    throws IOException {
+    final var key = Positions.chunk(regionX, regionZ);
+    final var region = this.regions.get(key);
+    if (region != null) {
+      return region;
+    }
+    synchronized (this.regionsLock) {
+      final var existing = this.regions.get(key);
+      if (existing != null) {
+        return existing;
+      }
+      Files.createDirectories(this.directory);
+      final var opened = RegionFile.open(
+        this.directory.resolve("r.%s.%s.mca".formatted(regionX, regionZ))
+      );
+      final var regions = new Long2ObjectOpenHashMap<>(this.regions);
+      regions.put(key, opened);
+      this.regions = regions;
+      return opened;
+    }
+  }
+
+  /**
+   * an interface to determine codecs that convert chunks to bytes and back.
+   */
+  public interface Codec {
+    /**
+     * decodes the chunk.
+     *
+     * @param x the x of the chunk to decode.
+     * @param z the z of the chunk to decode.
+     * @param data the data to decode.
+     *
+     * @return decoded chunk.
+     *
+     * @throws IOException if the data is invalid.
+     */
+    @NotNull
+    Chunk decode(int x, int z, @NotNull ByteBuffer data) throws IOException;
+
+    /**
+     * encodes the chunk.
+     *
+     * @param chunk the chunk to encode.
+     *
+     * @return encoded chunk.
+     */
+    @NotNull
+    ByteBuffer encode(@NotNull Chunk chunk);
+  }
+}
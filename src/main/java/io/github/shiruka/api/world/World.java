@@ -8,12 +8,23 @@ import java.time.Duration;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import org.jetbrains.annotations.NotNull;
 
 /**
  * an interface to determine Minecraft worlds.
  */
 public interface World {
+  /**
+   * creates a batch of block changes that are applied at once.
+   *
+   * @return a newly created block batch.
+   */
+  @NotNull
+  default BlockBatch batch() {
+    return new BlockBatch(this);
+  }
+
   /**
    * gets the block at the position.
    *
@@ -23,7 +34,7 @@ public interface World {
    */
   @NotNull
   default Block block(@NotNull final Vector3d vector) {
-    return this.block(vector.asVector3i());
+    return this.block(vector.floorX(), vector.floorY(), vector.floorZ());
   }
 
   /**
@@ -62,7 +73,20 @@ public interface World {
   Optional<Chunk> chunkAt(int x, int z);
 
   /**
-   * gets chunk at the position or generates it.
+   * gets chunk at the position without blocking the caller, loads or generates it if it is not loaded.
+   * <p>
+   * concurrent requests for the same chunk share one load, see {@link ChunkLoader}.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return chunk at the position.
+   */
+  @NotNull
+  CompletableFuture<Chunk> chunkAtAsync(int x, int z);
+
+  /**
+   * gets chunk at the position or generates it, blocks the caller until the chunk exists.
    *
    * @param x the x to get.
    * @param z the z to get.
@@ -87,6 +111,174 @@ public interface World {
    */
   void difficulty(@NotNull Difficulty difficulty);
 
+  /**
+   * fills the box with the block state.
+   *
+   * @param min the min to fill, inclusive.
+   * @param max the max to fill, inclusive.
+   * @param state the state to fill.
+   *
+   * @see #fill(int, int, int, int, int, int, int)
+   */
+  default void fill(
+    @NotNull final Vector3i min,
+    @NotNull final Vector3i max,
+    final int state
+  ) {
+    this.fill(min.x(), min.y(), min.z(), max.x(), max.y(), max.z(), state);
+  }
+
+  /**
+   * fills the box with the block state section by section, loads or generates the chunks in the box.
+   * <p>
+   * the sections that the box fully covers are filled at once and the heightmaps are updated once per column. the
+   * changes do not create {@link Block} instances.
+   *
+   * @param minX the min x to fill, inclusive.
+   * @param minY the min y to fill, inclusive.
+   * @param minZ the min z to fill, inclusive.
+   * @param maxX the max x to fill, inclusive.
+   * @param maxY the max y to fill, inclusive.
+   * @param maxZ the max z to fill, inclusive.
+   * @param state the state to fill.
+   */
+  default void fill(
+    final int minX,
+    final int minY,
+    final int minZ,
+    final int maxX,
+    final int maxY,
+    final int maxZ,
+    final int state
+  ) {
+    for (var chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+      for (var chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+        final var chunk = this.chunkAtOrGenerate(chunkX, chunkZ);
+        final var fromX = Math.max(minX, chunkX << 4) & 15;
+        final var toX = Math.min(maxX, (chunkX << 4) + 15) & 15;
+        final var fromZ = Math.max(minZ, chunkZ << 4) & 15;
+        final var toZ = Math.min(maxZ, (chunkZ << 4) + 15) & 15;
+        final var fromSection = Math.max(minY >> 4, chunk.minSectionY());
+        final var toSection = Math.min(maxY >> 4, chunk.maxSectionY());
+        for (var sectionY = fromSection; sectionY <= toSection; sectionY++) {
+          final var section = chunk.section(sectionY);
+          final var fromY = Math.max(minY, sectionY << 4) & 15;
+          final var toY = Math.min(maxY, (sectionY << 4) + 15) & 15;
+          if (
+            fromX == 0 &&
+            fromY == 0 &&
+            fromZ == 0 &&
+            toX == 15 &&
+            toY == 15 &&
+            toZ == 15
+          ) {
+            section.fill(state);
+            continue;
+          }
+          for (var y = fromY; y <= toY; y++) {
+            for (var z = fromZ; z <= toZ; z++) {
+              for (var x = fromX; x <= toX; x++) {
+                section.set(x, y, z, state);
+              }
+            }
+          }
+        }
+        if (fromSection > toSection) {
+          continue;
+        }
+        final var heightmap = chunk.heightmap();
+        final var fromY = Math.max(minY, fromSection << 4);
+        final var toY = Math.min(maxY, toSection << 4 | 15);
+        for (var z = fromZ; z <= toZ; z++) {
+          for (var x = fromX; x <= toX; x++) {
+            heightmap.updateColumn(chunk, x, z, fromY, toY, state);
+          }
+        }
+        chunk.dirty(true);
+      }
+    }
+  }
+
+  /**
+   * visits the blocks in the box.
+   *
+   * @param min the min to visit, inclusive.
+   * @param max the max to visit, inclusive.
+   * @param visitor the visitor to visit.
+   *
+   * @see #forEachBlock(int, int, int, int, int, int, BlockVisitor)
+   */
+  default void forEachBlock(
+    @NotNull final Vector3i min,
+    @NotNull final Vector3i max,
+    @NotNull final BlockVisitor visitor
+  ) {
+    this.forEachBlock(
+        min.x(),
+        min.y(),
+        min.z(),
+        max.x(),
+        max.y(),
+        max.z(),
+        visitor
+      );
+  }
+
+  /**
+   * visits the blocks in the box section by section, loads or generates the chunks in the box.
+   * <p>
+   * the blocks are visited without creating {@link Block} instances, the blocks above and below the world's height
+   * are not visited.
+   *
+   * @param minX the min x to visit, inclusive.
+   * @param minY the min y to visit, inclusive.
+   * @param minZ the min z to visit, inclusive.
+   * @param maxX the max x to visit, inclusive.
+   * @param maxY the max y to visit, inclusive.
+   * @param maxZ the max z to visit, inclusive.
+   * @param visitor the visitor to visit.
+   */
+  default void forEachBlock(
+    final int minX,
+    final int minY,
+    final int minZ,
+    final int maxX,
+    final int maxY,
+    final int maxZ,
+    @NotNull final BlockVisitor visitor
+  ) {
+    for (var chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+      for (var chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+        final var chunk = this.chunkAtOrGenerate(chunkX, chunkZ);
+        final var fromX = Math.max(minX, chunkX << 4) & 15;
+        final var toX = Math.min(maxX, (chunkX << 4) + 15) & 15;
+        final var fromZ = Math.max(minZ, chunkZ << 4) & 15;
+        final var toZ = Math.min(maxZ, (chunkZ << 4) + 15) & 15;
+        final var fromSection = Math.max(minY >> 4, chunk.minSectionY());
+        final var toSection = Math.min(maxY >> 4, chunk.maxSectionY());
+        for (var sectionY = fromSection; sectionY <= toSection; sectionY++) {
+          final var section = chunk.section(sectionY);
+          final var fromY = Math.max(minY, sectionY << 4) & 15;
+          final var toY = Math.min(maxY, (sectionY << 4) + 15) & 15;
+          final var uniform = section.isUniform();
+          final var uniformState = uniform ? section.get(0, 0, 0) : 0;
+          for (var y = fromY; y <= toY; y++) {
+            for (var z = fromZ; z <= toZ; z++) {
+              for (var x = fromX; x <= toX; x++) {
+                visitor.visit(
+                  chunkX << 4 | x,
+                  sectionY << 4 | y,
+                  chunkZ << 4 | z,
+                  uniform ? uniformState : section.get(x, y, z)
+                );
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
   /**
    * gets the game rule.
    *
@@ -149,15 +341,49 @@ public interface World {
    * @param z the z to get.
    *
    * @return highest block at the position
+   *
+   * @see #highestBlockYAt(int, int)
    */
   @NotNull
-  Block highestBlockAt(int x, int z);
+  default Block highestBlockAt(final int x, final int z) {
+    return this.block(x, this.highestBlockYAt(x, z), z);
+  }
+
+  /**
+   * gets the y of the highest non-air block at the position from the chunk's heightmap.
+   *
+   * @param x the x to get.
+   * @param z the z to get.
+   *
+   * @return y of the highest non-air block, the lowest y of the chunk if the column contains only air.
+   */
+  default int highestBlockYAt(final int x, final int z) {
+    final var chunk = this.chunkAtOrGenerate(x >> 4, z >> 4);
+    final var y = chunk.heightmap().highest(x & 15, z & 15);
+    if (y == Heightmap.EMPTY) {
+      return chunk.minSectionY() << 4;
+    }
+    return y;
+  }
 
   /**
-   * saves the world.
+   * saves the world, blocks the caller until all the chunks are written.
+   *
+   * @see #saveAsync()
    */
   void save();
 
+  /**
+   * saves the dirty chunks of the world incrementally without blocking the caller.
+   * <p>
+   * a limited number of dirty chunks is snapshotted each tick and written on a background writer, see
+   * {@link WorldSaver}.
+   *
+   * @return progress of the save.
+   */
+  @NotNull
+  WorldSaver.Progress saveAsync();
+
   /**
    * obtains the spawn location.
    *
@@ -190,9 +416,27 @@ public interface World {
 
   /**
    * unloads the chunk at the position.
+   * <p>
+   * idle chunks are also unloaded automatically when they are evicted from the world's {@link ChunkCache}.
    *
    * @param x the x to unload.
    * @param z the z to unload.
    */
   void unloadChunk(int x, int z);
+
+  /**
+   * an interface to determine block visitors of {@link #forEachBlock(int, int, int, int, int, int, BlockVisitor)}.
+   */
+  @FunctionalInterface
+  interface BlockVisitor {
+    /**
+     * visits the block.
+     *
+     * @param x the x to visit.
+     * @param y the y to visit.
+     * @param z the z to visit.
+     * @param state the block state to visit.
+     */
+    void visit(int x, int y, int z, int state);
+  }
 }
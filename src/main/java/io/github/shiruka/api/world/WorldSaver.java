@@ -0,0 +1,224 @@
+package io.github.shiruka.api.world;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * a class that represents incremental savers of worlds.
+ * <p>
+ * {@link #tick()} runs on the thread that changes the chunks, it takes a snapshot of a limited number of dirty chunks,
+ * marks them clean and hands the snapshots to the background writer. so the chunks keep changing while they are
+ * written and the tick never waits for the disk. the chunks that fail to save, and the chunks of a save that already
+ * failed, are marked dirty again from the writer thread.
+ */
+public final class WorldSaver implements AutoCloseable {
+
+  /**
+   * the chunks per tick.
+   */
+  private final int chunksPerTick;
+
+  /**
+   * the queue of the chunks to save.
+   */
+  private final Queue<Pending> queue = new ArrayDeque<>();
+
+  /**
+   * the storage.
+   */
+  @NotNull
+  private final RegionStorage storage;
+
+  /**
+   * the writer.
+   */
+  @NotNull
+  private final ExecutorService writer;
+
+  /**
+   * ctor.
+   *
+   * @param storage the storage.
+   * @param chunksPerTick the chunks per tick.
+   * @param writer the writer, a single thread executor keeps the writes in order.
+   */
+  public WorldSaver(
+    @NotNull final RegionStorage storage,
+    final int chunksPerTick,
+    @NotNull final ExecutorService writer
+  ) {
+    this.storage = storage;
+    this.chunksPerTick = chunksPerTick;
+    this.writer = writer;
+  }
+
+  /**
+   * creates a world saver with its own writer thread.
+   *
+   * @param name the name of the world to create.
+   * @param storage the storage to create.
+   * @param chunksPerTick the chunks per tick to create.
+   *
+   * @return a newly created world saver.
+   */
+  @NotNull
+  public static WorldSaver create(
+    @NotNull final String name,
+    @NotNull final RegionStorage storage,
+    final int chunksPerTick
+  ) {
+    return new WorldSaver(
+      storage,
+      chunksPerTick,
+      Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder()
+          .setNameFormat("Shiruka World Saver " + name + " #%d")
+          .setDaemon(true)
+          .build()
+      )
+    );
+  }
+
+  /**
+   * shuts down the writer after the queued writes.
+   */
+  @Override
+  public void close() {
+    this.writer.shutdown();
+  }
+
+  /**
+   * queues the dirty chunks to save.
+   *
+   * @param chunks the chunks to save.
+   *
+   * @return progress of the save.
+   */
+  @NotNull
+  public Progress save(@NotNull final Collection<? extends Chunk> chunks) {
+    final var dirty = chunks.stream().filter(Chunk::dirty).toList();
+    final var progress = new Progress(dirty.size());
+    if (dirty.isEmpty()) {
+      progress.future.complete(null);
+      return progress;
+    }
+    synchronized (this.queue) {
+      for (final var chunk : dirty) {
+        this.queue.add(new Pending(chunk, progress));
+      }
+    }
+    return progress;
+  }
+
+  /**
+   * snapshots the queued chunks up to the chunks per tick and hands them to the writer.
+   */
+  public void tick() {
+    for (var index = 0; index < this.chunksPerTick; index++) {
+      final Pending pending;
+      synchronized (this.queue) {
+        pending = this.queue.poll();
+      }
+      if (pending == null) {
+        return;
+      }
+      final var progress = pending.progress();
+      if (progress.future.isDone()) {
+        continue;
+      }
+      final var chunk = pending.chunk();
+      final var snapshot = chunk.dirty() ? chunk.snapshot() : null;
+      chunk.dirty(false);
+      this.writer.execute(() -> {
+          if (progress.future.isDone()) {
+            if (snapshot != null) {
+              chunk.dirty(true);
+            }
+            return;
+          }
+          try {
+            if (snapshot != null) {
+              this.storage.write(snapshot);
+            }
+            if (progress.saved.incrementAndGet() == progress.total) {
+              this.storage.flush();
+              progress.future.complete(null);
+            }
+          } catch (final IOException | RuntimeException e) {
+            chunk.dirty(true);
+            progress.future.completeExceptionally(e);
+          }
+        });
+    }
+  }
+
+  /**
+   * a class that represents progresses of the saves.
+   */
+  @Accessors(fluent = true)
+  public static final class Progress {
+
+    /**
+     * the future that completes when all the chunks of the save are written.
+     */
+    @Getter
+    @NotNull
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+    /**
+     * the saved chunk count.
+     */
+    private final AtomicInteger saved = new AtomicInteger();
+
+    /**
+     * the total chunk count.
+     */
+    @Getter
+    private final int total;
+
+    /**
+     * ctor.
+     *
+     * @param total the total.
+     */
+    private Progress(final int total) {
+      this.total = total;
+    }
+
+    /**
+     * obtains the ratio of the saved chunks.
+     *
+     * @return ratio of the saved chunks between {@code 0} and {@code 1}.
+     */
+    public double ratio() {
+      return this.total == 0 ? 1.0d : this.saved() / (double) this.total;
+    }
+
+    /**
+     * obtains the saved chunk count.
+     *
+     * @return saved chunk count.
+     */
+    public int saved() {
+      return this.saved.get();
+    }
+  }
+
+  /**
+   * a record class that represents chunks that are queued to save.
+   *
+   * @param chunk the chunk.
+   * @param progress the progress.
+   */
+  private record Pending(@NotNull Chunk chunk, @NotNull Progress progress) {}
+}